@@ -0,0 +1,33 @@
+package ru.practicum.shareit.client;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки общего пула соединений gateway с shareit-server.
+ */
+@Data
+@ConfigurationProperties(prefix = "shareit-server.http")
+public class HttpClientProperties {
+    private int maxConnections = 500;
+    private int maxConnectionsPerRoute = 500;
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    private Duration connectionRequestTimeout = Duration.ofSeconds(10);
+    private Duration responseTimeout = Duration.ofSeconds(30);
+    private Duration idleEviction = Duration.ofSeconds(30);
+    private Duration connectionTimeToLive = Duration.ofMinutes(5);
+    private Stream stream = new Stream();
+
+    /**
+     * Отдельный пул для долгоживущих SSE-лент: подписчики не занимают соединения обычных запросов,
+     * а при исчерпании пула новый подписчик быстро получает 503 вместо ожидания.
+     */
+    @Data
+    public static class Stream {
+        private int maxConnections = 100;
+        private Duration connectionRequestTimeout = Duration.ofSeconds(1);
+        private Duration responseTimeout = Duration.ofSeconds(60);
+    }
+}
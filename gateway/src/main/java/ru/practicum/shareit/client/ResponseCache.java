@@ -0,0 +1,60 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Ограниченный LRU-кэш ответов shareit-server с ETag. Закэшированный ответ не отдается вслепую:
+ * {@link BaseClient} каждый раз перепроверяет его заголовком If-None-Match, и неизменившаяся сущность
+ * стоит серверу ответа 304 без тела.
+ */
+@Component
+public class ResponseCache {
+    private final Map<String, Entry> entries;
+    private final Lock lock = new ReentrantLock();
+
+    public ResponseCache(@Value("${shareit-server.cache.maximum-size:1000}") int maximumSize) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maximumSize;
+            }
+        };
+    }
+
+    public Entry get(String key) {
+        lock.lock();
+        try {
+            return entries.get(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void put(String key, Entry entry) {
+        lock.lock();
+        try {
+            entries.put(key, entry);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void evict(String key) {
+        lock.lock();
+        try {
+            entries.remove(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public record Entry(String etag, HttpHeaders headers, byte[] body) {
+    }
+}
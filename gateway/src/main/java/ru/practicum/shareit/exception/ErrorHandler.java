@@ -1,10 +1,14 @@
 package ru.practicum.shareit.exception;
 
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.context.request.async.AsyncRequestNotUsableException;
 
+@Slf4j
 @RestControllerAdvice
 public class ErrorHandler {
 
@@ -13,4 +17,22 @@ public class ErrorHandler {
     public ErrorResponse handleValidation(final ValidationException exception) {
         return new ErrorResponse(exception.getMessage());
     }
-}
\ No newline at end of file
+
+    /**
+     * shareit-server недоступен: не удалось соединиться или дождаться свободного соединения в пуле.
+     */
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ErrorResponse handleServerUnavailable(final ResourceAccessException exception) {
+        log.warn("shareit-server недоступен: {}", exception.getMessage());
+        return new ErrorResponse("Сервис временно недоступен");
+    }
+
+    /**
+     * Клиент закрыл проксируемую SSE-ленту: ответ уже начат, писать в него нечего.
+     */
+    @ExceptionHandler
+    public void handleClientDisconnect(final AsyncRequestNotUsableException exception) {
+        log.debug("Клиент отключился: {}", exception.getMessage());
+    }
+}
@@ -5,15 +5,17 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
 import ru.practicum.shareit.item.dto.CommentRequestDto;
 import ru.practicum.shareit.item.dto.ItemRequestDto;
 
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -21,12 +23,14 @@ public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      ClientHttpRequestFactory requestFactory, ResponseCache responseCache) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                responseCache
         );
     }
 
@@ -34,12 +38,16 @@ public class ItemClient extends BaseClient {
         return post("", ownerId, requestDto);
     }
 
+    public ResponseEntity<Object> addItems(Long ownerId, List<ItemRequestDto> requestDtos) {
+        return post("/batch", ownerId, requestDtos);
+    }
+
     public ResponseEntity<Object> updateItem(Long userId, Long itemId, ItemRequestDto requestDto) {
         return patch("/" + itemId, userId, requestDto);
     }
 
     public ResponseEntity<Object> getItemById(Long itemId, Long userId) {
-        return get("/" + itemId, userId);
+        return getRevalidated("/" + itemId, userId);
     }
 
     public ResponseEntity<Object> getAllItemByUserId(Long userId) {
@@ -47,16 +55,16 @@ public class ItemClient extends BaseClient {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> searchItems(String text) {
+    public ResponseEntity<Object> searchItems(String text, int from, int size) {
         if (!StringUtils.hasText(text)) {
             return ResponseEntity.status(HttpStatus.OK).body(Collections.emptyList());
         } else {
             Map<String, Object> parameters = Map.of(
-                    "text", text.toLowerCase()
+                    "text", text,
+                    "from", from,
+                    "size", size
             );
-            return get(
-                    "/search?text=" + text,
-                    parameters.size());
+            return get("/search?text={text}&from={from}&size={size}", null, parameters);
         }
     }
 
@@ -1,8 +1,13 @@
 package ru.practicum.shareit.item;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -15,11 +20,16 @@ import org.springframework.web.bind.annotation.RestController;
 import ru.practicum.shareit.item.dto.CommentRequestDto;
 import ru.practicum.shareit.item.dto.ItemRequestDto;
 
+import java.util.List;
+
 @RestController
+@Validated
 @RequiredArgsConstructor
 @RequestMapping("/items")
 public class ItemController {
 
+    private static final int BATCH_MAX_SIZE = 1000;
+
     private final ItemClient client;
 
     @PostMapping
@@ -29,6 +39,13 @@ public class ItemController {
         return client.addItem(ownerId, itemRequestDto);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<Object> addAll(@RequestHeader("X-Sharer-User-Id") Long ownerId,
+                                         @NotEmpty @Size(max = BATCH_MAX_SIZE)
+                                         @RequestBody List<@Valid ItemRequestDto> itemRequestDtos) {
+        return client.addItems(ownerId, itemRequestDtos);
+    }
+
     @PatchMapping("/{itemId}")
     public ResponseEntity<Object> update(@RequestHeader("X-Sharer-User-Id") Long userId,
                                          @PathVariable Long itemId,
@@ -48,8 +65,10 @@ public class ItemController {
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> searchItems(@RequestParam String text) {
-        return client.searchItems(text);
+    public ResponseEntity<Object> searchItems(@RequestParam String text,
+                                              @PositiveOrZero @RequestParam(defaultValue = "0") int from,
+                                              @Positive @RequestParam(defaultValue = "10") int size) {
+        return client.searchItems(text, from, size);
     }
 
     @PostMapping("/{itemId}/comment")
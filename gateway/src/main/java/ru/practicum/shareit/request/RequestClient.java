@@ -1,13 +1,16 @@
 package ru.practicum.shareit.request;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
 import ru.practicum.shareit.request.dto.ReqItemDto;
 
 import java.util.Map;
@@ -16,14 +19,20 @@ import java.util.Map;
 public class RequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
+    private final ClientHttpRequestFactory streamRequestFactory;
+
     @Autowired
-    public RequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public RequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                         ClientHttpRequestFactory requestFactory, ResponseCache responseCache,
+                         @Qualifier("shareItServerStreamRequestFactory") ClientHttpRequestFactory streamRequestFactory) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                responseCache
         );
+        this.streamRequestFactory = streamRequestFactory;
     }
 
     public ResponseEntity<Object> createRequest(Long authorId, ReqItemDto createDto) {
@@ -42,7 +51,11 @@ public class RequestClient extends BaseClient {
         return get("/all", userId, parameters);
     }
 
+    public ResponseEntity<StreamingResponseBody> streamRequests(Long userId) {
+        return stream(streamRequestFactory, "/stream", userId);
+    }
+
     public ResponseEntity<Object> getRequestById(Long requestId, Long userId) {
-        return get("/" + requestId, userId);
+        return getRevalidated("/" + requestId, userId);
     }
 }
\ No newline at end of file
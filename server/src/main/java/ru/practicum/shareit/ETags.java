@@ -0,0 +1,30 @@
+package ru.practicum.shareit;
+
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Сильные ETag из id и версий (@Version) сущностей, из которых собирается ответ. Совпадение с If-None-Match
+ * позволяет ответить 304, не собирая DTO и не сериализуя JSON.
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    public static String of(Object... parts) {
+        return "\"" + Arrays.stream(parts).map(String::valueOf).collect(Collectors.joining("-")) + "\"";
+    }
+
+    /**
+     * Сворачивает версии произвольного числа вложенных сущностей в одну часть тега.
+     */
+    public static String digest(Stream<?> parts) {
+        String joined = parts.map(String::valueOf).collect(Collectors.joining(","));
+        return DigestUtils.md5DigestAsHex(joined.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,180 @@
+package ru.practicum.shareit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Реестр id существующих пользователей и вещей в сжатых битовых картах Roaring: плотные id из последовательностей
+ * занимают единицы бит на запись. Наполняется при старте из БД и поддерживается {@link IdRegistryListener}.
+ * Промах перепроверяется в БД, чтобы находились id, созданные другим экземпляром сервера или в обход JPA;
+ * подтвержденный промах запоминается в {@link UnknownIdCache} на время TTL.
+ */
+@Slf4j
+@Component
+public class IdRegistry {
+    private final JdbcTemplate jdbcTemplate;
+    private final Ids users;
+    private final Ids items;
+
+    public IdRegistry(JdbcTemplate jdbcTemplate,
+                      @Value("${shareit.registry.unknown-ids.maximum-size:100000}") long unknownMaximumSize,
+                      @Value("${shareit.registry.unknown-ids.expire-after-write:10s}") Duration unknownExpireAfterWrite) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.users = new Ids("users", new UnknownIdCache(unknownMaximumSize, unknownExpireAfterWrite));
+        this.items = new Ids("items", new UnknownIdCache(unknownMaximumSize, unknownExpireAfterWrite));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        users.load();
+        items.load();
+        log.info("Реестр id загружен: {} пользователей, {} вещей", users.size(), items.size());
+    }
+
+    public boolean containsUser(long userId) {
+        return users.contains(userId);
+    }
+
+    public boolean containsItem(long itemId) {
+        return items.contains(itemId);
+    }
+
+    /**
+     * Id попадает в реестр сразу, чтобы быть видимым в своей транзакции, и удаляется при ее откате.
+     */
+    public void userCreated(long userId) {
+        users.addUnlessRolledBack(userId);
+    }
+
+    public void itemCreated(long itemId) {
+        items.addUnlessRolledBack(itemId);
+    }
+
+    /**
+     * Каскадом в БД вместе с пользователем удаляются его вещи и вещи других владельцев, созданные в ответ
+     * на его запросы, поэтому их id собираются до удаления пользователя.
+     */
+    public void userDeleted(long userId) {
+        users.removeAfterCommit(userId);
+        jdbcTemplate.query("select id from items where owner_id = ? " +
+                        "or request_id in (select id from requests where requester_id = ?)",
+                (RowCallbackHandler) rs -> items.removeAfterCommit(rs.getLong(1)), userId, userId);
+    }
+
+    public void itemDeleted(long itemId) {
+        items.removeAfterCommit(itemId);
+    }
+
+    private final class Ids {
+        private final String table;
+        private final Roaring64Bitmap bitmap = new Roaring64Bitmap();
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private final UnknownIdCache unknown;
+
+        private Ids(String table, UnknownIdCache unknown) {
+            this.table = table;
+            this.unknown = unknown;
+        }
+
+        void load() {
+            Roaring64Bitmap loadedIds = new Roaring64Bitmap();
+            jdbcTemplate.query("select id from " + table, (RowCallbackHandler) rs -> loadedIds.addLong(rs.getLong(1)));
+            lock.writeLock().lock();
+            try {
+                bitmap.or(loadedIds);
+                bitmap.runOptimize();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        boolean contains(long id) {
+            boolean known;
+            lock.readLock().lock();
+            try {
+                known = bitmap.contains(id);
+            } finally {
+                lock.readLock().unlock();
+            }
+            if (known || unknown.contains(id)) {
+                return known;
+            }
+            Integer found = jdbcTemplate.query("select 1 from " + table + " where id = ?",
+                    rs -> rs.next() ? 1 : null, id);
+            if (found == null) {
+                unknown.add(id);
+                return false;
+            }
+            add(id);
+            return true;
+        }
+
+        long size() {
+            lock.readLock().lock();
+            try {
+                return bitmap.getLongCardinality();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        void add(long id) {
+            unknown.remove(id);
+            lock.writeLock().lock();
+            try {
+                bitmap.addLong(id);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(long id) {
+            lock.writeLock().lock();
+            try {
+                bitmap.removeLong(id);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void addUnlessRolledBack(long id) {
+            add(id);
+            if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+                return;
+            }
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        remove(id);
+                    }
+                }
+            });
+        }
+
+        void removeAfterCommit(long id) {
+            if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+                remove(id);
+                return;
+            }
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remove(id);
+                }
+            });
+        }
+    }
+}
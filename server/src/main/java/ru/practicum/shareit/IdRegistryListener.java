@@ -0,0 +1,34 @@
+package ru.practicum.shareit;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PreRemove;
+import lombok.RequiredArgsConstructor;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+/**
+ * Держит {@link IdRegistry} в согласии с таблицами пользователей и вещей при любом сохранении и удалении через JPA.
+ * Создается Hibernate через контейнер бинов Spring.
+ */
+@RequiredArgsConstructor
+public class IdRegistryListener {
+    private final IdRegistry idRegistry;
+
+    @PostPersist
+    public void created(Object entity) {
+        if (entity instanceof User user) {
+            idRegistry.userCreated(user.getId());
+        } else if (entity instanceof Item item) {
+            idRegistry.itemCreated(item.getId());
+        }
+    }
+
+    @PreRemove
+    public void deleted(Object entity) {
+        if (entity instanceof User user) {
+            idRegistry.userDeleted(user.getId());
+        } else if (entity instanceof Item item) {
+            idRegistry.itemDeleted(item.getId());
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package ru.practicum.shareit;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Проверяет при старте, что для горячих запросов к бронированиям, вещам, комментариям и запросам
+ * в БД есть индексы. Индекс подходит, если ожидаемые колонки являются его префиксом.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SchemaIndexVerifier {
+    static final Map<String, List<List<String>>> REQUIRED_INDEXES = Map.of(
+            "bookings", List.of(List.of("booker_id", "start_date"), List.of("item_id", "status", "start_date")),
+            "items", List.of(List.of("owner_id"), List.of("request_id")),
+            "comments", List.of(List.of("item_id")),
+            "requests", List.of(List.of("requester_id", "created")));
+
+    private final DataSource dataSource;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void verify() {
+        List<String> missing = findMissingIndexes();
+        if (missing.isEmpty()) {
+            log.info("Все необходимые индексы присутствуют в БД");
+        } else {
+            log.warn("В БД отсутствуют индексы: {}", missing);
+        }
+    }
+
+    public List<String> findMissingIndexes() {
+        List<String> missing = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            for (Map.Entry<String, List<List<String>>> table : REQUIRED_INDEXES.entrySet()) {
+                List<List<String>> indexes = readIndexes(metaData, table.getKey());
+                for (List<String> columns : table.getValue()) {
+                    if (indexes.stream().noneMatch(index -> startsWith(index, columns))) {
+                        missing.add(table.getKey() + columns);
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            log.warn("Не удалось проверить индексы БД: {}", e.getMessage());
+        }
+        return missing;
+    }
+
+    private static List<List<String>> readIndexes(DatabaseMetaData metaData, String table) throws SQLException {
+        String name = metaData.storesUpperCaseIdentifiers() ? table.toUpperCase() : table;
+        Map<String, TreeMap<Short, String>> indexes = new TreeMap<>();
+        try (ResultSet rows = metaData.getIndexInfo(null, null, name, false, false)) {
+            while (rows.next()) {
+                String index = rows.getString("INDEX_NAME");
+                String column = rows.getString("COLUMN_NAME");
+                if (index != null && column != null) {
+                    indexes.computeIfAbsent(index, key -> new TreeMap<>())
+                            .put(rows.getShort("ORDINAL_POSITION"), column.toLowerCase());
+                }
+            }
+        }
+        return indexes.values().stream()
+                .map(columns -> (List<String>) new ArrayList<>(columns.values()))
+                .toList();
+    }
+
+    private static boolean startsWith(List<String> index, List<String> columns) {
+        return index.size() >= columns.size() && index.subList(0, columns.size()).equals(columns);
+    }
+}
@@ -0,0 +1,33 @@
+package ru.practicum.shareit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+
+/**
+ * Ограниченный кэш id, которых не оказалось в БД. Пока запись не истекла, повторный промах по тому же id
+ * отклоняется без запроса к БД. Созданный id вычеркивается сразу.
+ */
+public class UnknownIdCache {
+    private final Cache<Long, Boolean> ids;
+
+    public UnknownIdCache(long maximumSize, Duration expireAfterWrite) {
+        ids = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+    }
+
+    public boolean contains(long id) {
+        return ids.getIfPresent(id) != null;
+    }
+
+    public void add(long id) {
+        ids.put(id, Boolean.TRUE);
+    }
+
+    public void remove(long id) {
+        ids.invalidate(id);
+    }
+}
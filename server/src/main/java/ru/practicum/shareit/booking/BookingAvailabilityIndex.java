@@ -0,0 +1,214 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Индекс занятости вещей: для каждой вещи хранит интервалы WAITING и APPROVED бронирований.
+ * Проверка пересечения выполняется бинарным поиском без обращения к БД, запись атомарна в рамках одной вещи.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingAvailabilityIndex {
+    private static final List<Status> ACTIVE_STATUSES = List.of(Status.WAITING, Status.APPROVED);
+
+    private final BookingRepository bookingRepository;
+    private final ConcurrentMap<Long, Timeline> timelines = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        timelines.clear();
+        Collection<Booking> bookings = bookingRepository.findAllByStatusInAndEndIsAfter(ACTIVE_STATUSES, LocalDateTime.now());
+        bookings.forEach(booking ->
+                timelines.merge(booking.getItem().getId(),
+                        Timeline.EMPTY.with(booking.getId(), booking.getStart(), booking.getEnd()),
+                        Timeline::merge));
+        log.info("Индекс занятости загружен: {} бронирований по {} вещам", bookings.size(), timelines.size());
+    }
+
+    public boolean isFree(Long itemId, LocalDateTime start, LocalDateTime end) {
+        Timeline timeline = timelines.get(itemId);
+        return timeline == null || !timeline.overlaps(start, end);
+    }
+
+    /**
+     * Атомарно проверяет, что интервал свободен, и занимает его за бронированием.
+     * Если запись происходит внутри транзакции, при ее откате интервал освобождается.
+     */
+    public boolean tryReserve(Long itemId, Long bookingId, LocalDateTime start, LocalDateTime end) {
+        boolean[] reserved = new boolean[1];
+        timelines.compute(itemId, (id, timeline) -> {
+            Timeline current = timeline == null ? Timeline.EMPTY : timeline.withoutExpired(LocalDateTime.now());
+            if (current.overlaps(start, end)) {
+                return timeline;
+            }
+            reserved[0] = true;
+            return current.with(bookingId, start, end);
+        });
+        if (reserved[0]) {
+            releaseOnRollback(itemId, bookingId);
+        }
+        return reserved[0];
+    }
+
+    public void release(Long itemId, Long bookingId) {
+        timelines.computeIfPresent(itemId, (id, timeline) -> {
+            Timeline updated = timeline.without(bookingId);
+            return updated.isEmpty() ? null : updated;
+        });
+    }
+
+    public void releaseAfterCommit(Long itemId, Long bookingId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            release(itemId, bookingId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                release(itemId, bookingId);
+            }
+        });
+    }
+
+    /**
+     * Бронирования удаляемого пользователя исчезают из БД каскадом, минуя JPA,
+     * поэтому их интервалы нужно собрать до удаления и освободить после коммита.
+     */
+    public void releaseBookerAfterCommit(Long bookerId) {
+        bookingRepository.findAllByBookerIdAndStatusInAndEndIsAfter(bookerId, ACTIVE_STATUSES, LocalDateTime.now())
+                .forEach(booking -> releaseAfterCommit(booking.getItem().getId(), booking.getId()));
+    }
+
+    private void releaseOnRollback(Long itemId, Long bookingId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    release(itemId, bookingId);
+                }
+            }
+        });
+    }
+
+    /**
+     * Неизменяемый набор интервалов одной вещи, отсортированный по началу.
+     * maxEnds[i] хранит наибольший конец среди первых i + 1 интервалов, поэтому пересечение
+     * ищется за O(log n) даже при наличии пересекающихся исторических бронирований.
+     */
+    private static final class Timeline {
+        private static final Timeline EMPTY = new Timeline(new long[0], new LocalDateTime[0], new LocalDateTime[0]);
+
+        private final long[] ids;
+        private final LocalDateTime[] starts;
+        private final LocalDateTime[] ends;
+        private final LocalDateTime[] maxEnds;
+
+        private Timeline(long[] ids, LocalDateTime[] starts, LocalDateTime[] ends) {
+            this.ids = ids;
+            this.starts = starts;
+            this.ends = ends;
+            this.maxEnds = new LocalDateTime[ends.length];
+            for (int i = 0; i < ends.length; i++) {
+                maxEnds[i] = i == 0 || ends[i].isAfter(maxEnds[i - 1]) ? ends[i] : maxEnds[i - 1];
+            }
+        }
+
+        boolean isEmpty() {
+            return ids.length == 0;
+        }
+
+        boolean overlaps(LocalDateTime start, LocalDateTime end) {
+            int startedBeforeEnd = countStartsBefore(end);
+            return startedBeforeEnd > 0 && maxEnds[startedBeforeEnd - 1].isAfter(start);
+        }
+
+        Timeline with(Long bookingId, LocalDateTime start, LocalDateTime end) {
+            int position = countStartsBefore(start);
+            int size = ids.length + 1;
+            long[] newIds = new long[size];
+            LocalDateTime[] newStarts = new LocalDateTime[size];
+            LocalDateTime[] newEnds = new LocalDateTime[size];
+            System.arraycopy(ids, 0, newIds, 0, position);
+            System.arraycopy(starts, 0, newStarts, 0, position);
+            System.arraycopy(ends, 0, newEnds, 0, position);
+            newIds[position] = bookingId;
+            newStarts[position] = start;
+            newEnds[position] = end;
+            System.arraycopy(ids, position, newIds, position + 1, ids.length - position);
+            System.arraycopy(starts, position, newStarts, position + 1, ids.length - position);
+            System.arraycopy(ends, position, newEnds, position + 1, ids.length - position);
+            return new Timeline(newIds, newStarts, newEnds);
+        }
+
+        Timeline without(Long bookingId) {
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i] == bookingId) {
+                    return remove(i);
+                }
+            }
+            return this;
+        }
+
+        Timeline withoutExpired(LocalDateTime now) {
+            Timeline result = this;
+            for (int i = ids.length - 1; i >= 0; i--) {
+                if (!ends[i].isAfter(now)) {
+                    result = result.remove(i);
+                }
+            }
+            return result;
+        }
+
+        Timeline merge(Timeline other) {
+            Timeline result = this;
+            for (int i = 0; i < other.ids.length; i++) {
+                result = result.with(other.ids[i], other.starts[i], other.ends[i]);
+            }
+            return result;
+        }
+
+        private Timeline remove(int index) {
+            int size = ids.length - 1;
+            long[] newIds = Arrays.copyOf(ids, size);
+            LocalDateTime[] newStarts = Arrays.copyOf(starts, size);
+            LocalDateTime[] newEnds = Arrays.copyOf(ends, size);
+            System.arraycopy(ids, index + 1, newIds, index, size - index);
+            System.arraycopy(starts, index + 1, newStarts, index, size - index);
+            System.arraycopy(ends, index + 1, newEnds, index, size - index);
+            return new Timeline(newIds, newStarts, newEnds);
+        }
+
+        private int countStartsBefore(LocalDateTime moment) {
+            int low = 0;
+            int high = starts.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (starts[middle].isBefore(moment)) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+}
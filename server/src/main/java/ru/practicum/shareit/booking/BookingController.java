@@ -1,11 +1,12 @@
 package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 
-import java.util.Collection;
+import java.util.List;
 
 @RestController
 @RequiredArgsConstructor
@@ -21,6 +22,12 @@ public class BookingController {
         return bookingService.addBooking(bookingCreateDto, userId);
     }
 
+    @PostMapping("/batch")
+    public List<BookingRequestDto> addBookings(@RequestBody List<BookingCreateDto> bookingCreateDtos,
+                                               @RequestHeader(HEADER) Long userId) {
+        return bookingService.addBookings(bookingCreateDtos, userId);
+    }
+
     @PatchMapping("/{bookingId}")
     public BookingRequestDto approveOrRejectBooking(@RequestHeader(HEADER) Long userId,
                                                     @PathVariable Long bookingId,
@@ -35,15 +42,28 @@ public class BookingController {
     }
 
     @GetMapping
-    public Collection<BookingRequestDto> getAllBookingsByCurrentUser(@RequestHeader(HEADER) Long userId,
-                                                                  @RequestParam(defaultValue = "ALL") String state) {
-        return bookingService.getAllBookingsByUser(userId, state);
+    public ResponseEntity<List<BookingRequestDto>> getAllBookingsByCurrentUser(@RequestHeader(HEADER) Long userId,
+                                                                              @RequestParam(defaultValue = "ALL") String state,
+                                                                              @RequestParam(defaultValue = "0") int from,
+                                                                              @RequestParam(defaultValue = "10") int size,
+                                                                              @RequestParam(required = false) String cursor) {
+        return withNextCursor(bookingService.getAllBookingsByUser(userId, state, from, size, cursor), size);
     }
 
     @GetMapping("/owner")
-    public Collection<BookingRequestDto> getAllBookingsAllItemsByOwner(@RequestHeader(HEADER) Long userId,
-                                                                       @RequestParam(defaultValue = "ALL") String state) {
-        return bookingService.getAllBookingsAllItemsByOwner(userId, state);
+    public ResponseEntity<List<BookingRequestDto>> getAllBookingsAllItemsByOwner(@RequestHeader(HEADER) Long userId,
+                                                                                @RequestParam(defaultValue = "ALL") String state,
+                                                                                @RequestParam(defaultValue = "0") int from,
+                                                                                @RequestParam(defaultValue = "10") int size,
+                                                                                @RequestParam(required = false) String cursor) {
+        return withNextCursor(bookingService.getAllBookingsAllItemsByOwner(userId, state, from, size, cursor), size);
     }
 
+    private static ResponseEntity<List<BookingRequestDto>> withNextCursor(List<BookingRequestDto> bookings, int size) {
+        String nextCursor = BookingCursor.next(bookings, size);
+        if (nextCursor == null) {
+            return ResponseEntity.ok(bookings);
+        }
+        return ResponseEntity.ok().header(BookingCursor.HEADER, nextCursor).body(bookings);
+    }
 }
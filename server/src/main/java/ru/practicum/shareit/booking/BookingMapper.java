@@ -3,6 +3,7 @@ package ru.practicum.shareit.booking;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingItemDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.dto.NearestBookingView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.item.dto.ItemNameDto;
@@ -11,6 +12,7 @@ import ru.practicum.shareit.user.dto.UserNameDto;
 import ru.practicum.shareit.user.model.User;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.stream.Collectors;
 
 public class BookingMapper {
@@ -35,7 +37,18 @@ public class BookingMapper {
                 .build();
     }
 
-    public static Collection<BookingRequestDto> toListBookingRequestDto(Collection<Booking> bookings) {
+    public static BookingItemDto toNearestBookingDto(NearestBookingView booking) {
+        if (booking == null) {
+            return null;
+        }
+        return BookingItemDto.builder().id(booking.getId())
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .bookerId(booking.getBookerId())
+                .build();
+    }
+
+    public static List<BookingRequestDto> toListBookingRequestDto(Collection<Booking> bookings) {
         return bookings.stream().map(BookingMapper::toBookingRequestDto).collect(Collectors.toList());
     }
 
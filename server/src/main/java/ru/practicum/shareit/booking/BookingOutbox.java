@@ -0,0 +1,176 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingEvent;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingEventType;
+import ru.practicum.shareit.booking.model.BookingOutboxEntry;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transactional outbox событий бронирований. Событие пишется в таблицу booking_outbox в транзакции бронирования,
+ * а отдельный виртуальный поток пачками публикует их как {@link BookingEvent} для @EventListener
+ * и удаляет доставленные. Поток просыпается после каждого коммита и раз в poll-interval, чтобы подобрать
+ * события, оставшиеся после рестарта, и повторить неудачные с экспоненциальной задержкой.
+ * После max-attempts попыток событие остается в таблице для разбора.
+ * Перед публикацией диспетчер забирает пачку себе на время lease, поэтому при нескольких экземплярах сервера
+ * каждое событие публикует один из них. Если экземпляр упал, не доставив пачку, по истечении аренды
+ * ее подберет другой: доставка «хотя бы один раз».
+ * Слушатели получают событие с задержкой, поэтому через outbox должны идти только побочные эффекты, которым она
+ * не мешает; кэши и индекс доступности обновляются синхронно. Таких слушателей в сервере пока нет, поэтому outbox
+ * выключен по умолчанию (shareit.outbox.enabled): append ничего не пишет, а диспетчер не запускается.
+ */
+@Slf4j
+@Component
+public class BookingOutbox {
+    private final BookingOutboxRepository outboxRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration pollInterval;
+    private final Duration retryBackoff;
+    private final Duration lease;
+    private final Semaphore wakeUp = new Semaphore(0);
+    private volatile Thread dispatcher;
+
+    public BookingOutbox(BookingOutboxRepository outboxRepository,
+                         ApplicationEventPublisher eventPublisher,
+                         TransactionTemplate transactionTemplate,
+                         @Value("${shareit.outbox.enabled:false}") boolean enabled,
+                         @Value("${shareit.outbox.batch-size:100}") int batchSize,
+                         @Value("${shareit.outbox.max-attempts:10}") int maxAttempts,
+                         @Value("${shareit.outbox.poll-interval:1s}") Duration pollInterval,
+                         @Value("${shareit.outbox.retry-backoff:1s}") Duration retryBackoff,
+                         @Value("${shareit.outbox.lease:1m}") Duration lease) {
+        this.outboxRepository = outboxRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.pollInterval = pollInterval;
+        this.retryBackoff = retryBackoff;
+        this.lease = lease;
+    }
+
+    /**
+     * Должен вызываться внутри транзакции, изменившей бронирование: при откате событие пропадает вместе с ним.
+     */
+    public void append(Booking booking, BookingEventType type) {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        outboxRepository.save(BookingOutboxEntry.builder()
+                .bookingId(booking.getId())
+                .itemId(booking.getItem().getId())
+                .type(type)
+                .created(now)
+                .nextAttemptAt(now)
+                .build());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    wakeUp.release();
+                }
+            });
+        } else {
+            wakeUp.release();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (enabled && dispatcher == null) {
+            dispatcher = Thread.ofVirtual().name("booking-outbox").start(this::run);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        Thread current = dispatcher;
+        if (current != null) {
+            current.interrupt();
+        }
+    }
+
+    /**
+     * Доставляет одну пачку созревших событий и возвращает число найденных, включая забранные другим диспетчером.
+     */
+    public int dispatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> due = outboxRepository.findDueIds(now, maxAttempts, PageRequest.of(0, batchSize));
+        if (due.isEmpty()) {
+            return 0;
+        }
+        String claim = UUID.randomUUID().toString();
+        transactionTemplate.executeWithoutResult(status ->
+                outboxRepository.claim(due, claim, now, now.plus(lease)));
+        List<BookingOutboxEntry> batch = outboxRepository.findByClaimOrderById(claim);
+        List<Long> delivered = new ArrayList<>();
+        List<BookingOutboxEntry> failed = new ArrayList<>();
+        for (BookingOutboxEntry entry : batch) {
+            try {
+                eventPublisher.publishEvent(new BookingEvent(entry.getId(), entry.getType(), entry.getBookingId(),
+                        entry.getItemId()));
+                delivered.add(entry.getId());
+            } catch (RuntimeException e) {
+                entry.setAttempts(entry.getAttempts() + 1);
+                entry.setClaim(null);
+                entry.setNextAttemptAt(now.plus(retryBackoff.multipliedBy(1L << Math.min(entry.getAttempts() - 1, 20))));
+                failed.add(entry);
+                if (entry.getAttempts() >= maxAttempts) {
+                    log.error("Событие {} бронирования {} не доставлено за {} попыток", entry.getType(),
+                            entry.getBookingId(), entry.getAttempts(), e);
+                } else {
+                    log.warn("Событие {} бронирования {} не доставлено, попытка {}: {}", entry.getType(),
+                            entry.getBookingId(), entry.getAttempts(), e.getMessage());
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> {
+                outboxRepository.deleteAllByIdInBatch(delivered);
+                outboxRepository.saveAll(failed);
+            });
+        }
+        return due.size();
+    }
+
+    private void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                if (wakeUp.tryAcquire(pollInterval.toMillis(), TimeUnit.MILLISECONDS)) {
+                    wakeUp.drainPermits();
+                }
+                while (dispatch() == batchSize) {
+                    wakeUp.drainPermits();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                log.warn("Ошибка при разборе outbox бронирований: {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.model.BookingOutboxEntry;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface BookingOutboxRepository extends JpaRepository<BookingOutboxEntry, Long> {
+    @Query("select e.id from BookingOutboxEntry e where e.nextAttemptAt <= :now and e.attempts < :maxAttempts order by e.id")
+    List<Long> findDueIds(LocalDateTime now, int maxAttempts, Pageable pageable);
+
+    /**
+     * Помечает созревшие записи меткой диспетчера и откладывает их до конца аренды. Условие по next_attempt_at
+     * проверяется заново на заблокированной строке, поэтому из параллельных диспетчеров запись получает один.
+     */
+    @Modifying
+    @Query("update BookingOutboxEntry e set e.claim = :claim, e.nextAttemptAt = :leaseUntil "
+            + "where e.id in :ids and e.nextAttemptAt <= :now")
+    int claim(Collection<Long> ids, String claim, LocalDateTime now, LocalDateTime leaseUntil);
+
+    List<BookingOutboxEntry> findByClaimOrderById(String claim);
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.util.List;
+
+public interface BookingQueryRepository {
+
+    /**
+     * Страница бронирований в порядке (start desc, id desc) одним запросом, без подсчета общего количества.
+     */
+    List<Booking> findPage(Specification<Booking> specification, int offset, int limit);
+}
@@ -1,39 +1,47 @@
 package ru.practicum.shareit.booking;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.dto.NearestBookingView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
 
 import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-    Collection<Booking> findAllByBookerIdOrderByStartDesc(Long userId);
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingQueryRepository {
+    @Override
+    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
+    Optional<Booking> findById(Long id);
 
-    Collection<Booking> findAllByBookerIdAndEndIsBeforeOrderByStartDesc(Long userId, LocalDateTime now);
-
-    Collection<Booking> findAllByBookerIdAndStartIsAfterOrderByStartDesc(Long userId, LocalDateTime now);
-
-    Collection<Booking> findAllByBookerIdAndStartIsBeforeAndEndIsAfterOrderByStartDesc(Long userId, LocalDateTime start, LocalDateTime end);
-
-    Collection<Booking> findAllByBookerIdAndStatusOrderByStartDesc(Long userId, Status status);
-
-    Collection<Booking> findAllByItemOwnerIdOrderByStartDesc(Long userId);
-
-    Collection<Booking> findAllByItemOwnerIdAndEndIsBeforeOrderByStartDesc(Long userId, LocalDateTime now);
+    Collection<Booking> findAllByBookerIdAndItemIdAndStatusAndEndBefore(Long userId, Long itemId, Status status, LocalDateTime localDateTime);
 
-    Collection<Booking> findAllByItemOwnerIdAndStartIsAfterOrderByStartDesc(Long userId, LocalDateTime now);
+    Collection<Booking> findAllByBookerIdAndStatusInAndEndIsAfter(Long bookerId, Collection<Status> statuses,
+                                                                  LocalDateTime end);
 
-    Collection<Booking> findAllByItemOwnerIdAndStartIsBeforeAndEndIsAfterOrderByStartDesc(Long userId, LocalDateTime start, LocalDateTime end);
+    @Query("select distinct b.item.id from Booking b where b.booker.id = :bookerId and b.status = :status")
+    List<Long> findItemIdsByBookerIdAndStatus(Long bookerId, Status status);
 
-    Collection<Booking> findAllByItemOwnerIdAndStatusOrderByStartDesc(Long userId, Status status);
+    List<Booking> findAllByItemIdAndStatusOrderByStartAsc(Long itemId, Status status);
 
-    Collection<Booking> findAllByBookerIdAndItemIdAndStatusAndEndBefore(Long userId, Long itemId, Status status, LocalDateTime localDateTime);
+    @Query(value = "select id, item_id as itemId, booker_id as bookerId, start_date as start, end_date as \"end\", true as past " +
+            "from (select b.*, row_number() over (partition by b.item_id order by b.start_date desc, b.id desc) as rn " +
+            "      from bookings b where b.item_id in (:itemIds) and b.status = 'APPROVED' and b.start_date < :now) last_booking " +
+            "where rn = 1 " +
+            "union all " +
+            "select id, item_id as itemId, booker_id as bookerId, start_date as start, end_date as \"end\", false as past " +
+            "from (select b.*, row_number() over (partition by b.item_id order by b.start_date, b.id) as rn " +
+            "      from bookings b where b.item_id in (:itemIds) and b.status = 'APPROVED' and b.start_date > :now) next_booking " +
+            "where rn = 1", nativeQuery = true)
+    List<NearestBookingView> findNearestApprovedBookings(Collection<Long> itemIds, LocalDateTime now);
 
-    Optional<Booking> findFirstByItemIdAndItemOwnerIdAndStartBeforeAndStatusOrderByStartDesc(Long itemId, Long userId, LocalDateTime localDateTime, Status status);
+    Collection<Booking> findAllByStatusInAndEndIsAfter(Collection<Status> statuses, LocalDateTime now);
 
-    Optional<Booking> findFirstByItemIdAndItemOwnerIdAndStartAfterAndStatusOrderByStartAsc(Long itemId, Long userId, LocalDateTime localDateTime, Status status);
+    boolean existsByItemIdAndStatusAndIdNotAndStartBeforeAndEndAfter(Long itemId, Status status, Long bookingId,
+                                                                     LocalDateTime end, LocalDateTime start);
 }
\ No newline at end of file
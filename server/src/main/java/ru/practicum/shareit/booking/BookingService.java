@@ -3,16 +3,18 @@ package ru.practicum.shareit.booking;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 
-import java.util.Collection;
+import java.util.List;
 
 public interface BookingService {
     BookingRequestDto addBooking(BookingCreateDto bookingCreateDto, Long userId);
 
+    List<BookingRequestDto> addBookings(List<BookingCreateDto> bookingCreateDtos, Long userId);
+
     BookingRequestDto approveOrRejectBooking(Long userId, Long bookingId, Boolean approved);
 
     BookingRequestDto getById(Long bookingId, Long userId);
 
-    Collection<BookingRequestDto> getAllBookingsByUser(Long userId, String state);
+    List<BookingRequestDto> getAllBookingsByUser(Long userId, String state, int from, int size, String cursor);
 
-    Collection<BookingRequestDto> getAllBookingsAllItemsByOwner(Long userId, String state);
+    List<BookingRequestDto> getAllBookingsAllItemsByOwner(Long userId, String state, int from, int size, String cursor);
 }
\ No newline at end of file
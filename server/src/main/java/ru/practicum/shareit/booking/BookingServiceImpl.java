@@ -2,58 +2,128 @@ package ru.practicum.shareit.booking;
 
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.IdRegistry;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingEventType;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.exception.AvailableItemException;
 import ru.practicum.shareit.exception.InvalidStateException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.ItemDetailsCache;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
-import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
+    private static final int DECISION_ATTEMPTS = 3;
+    private static final int BATCH_MAX_SIZE = 1000;
+
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
+    private final IdRegistry idRegistry;
     private final ItemRepository itemRepository;
+    private final BookingAvailabilityIndex availabilityIndex;
+    private final ItemDetailsCache itemDetailsCache;
+    private final BookingOutbox bookingOutbox;
+    private final TransactionTemplate transactionTemplate;
 
     @Transactional
     @Override
     public BookingRequestDto addBooking(BookingCreateDto bookingCreateDto, Long userId) {
-        if (bookingCreateDto.getEnd() == null || bookingCreateDto.getStart() == null) {
-            throw new ValidationException("Начало или конец аренды должен быть заполнен");
+        validateDates(bookingCreateDto);
+        if (!idRegistry.containsUser(userId)) {
+            throw new NotFoundException("Нет юзера с таким ID = " + userId);
         }
-        if (bookingCreateDto.getEnd().isBefore(bookingCreateDto.getStart()) || bookingCreateDto.getEnd().isEqual(bookingCreateDto.getStart())) {
-            throw new ValidationException("Конец букинга не может равняться или быть раньше начала");
+        if (!idRegistry.containsItem(bookingCreateDto.getItemId())) {
+            throw new NotFoundException("Нет вещи с таким ID = " + bookingCreateDto.getItemId());
         }
         User user = userRepository.findById(userId).orElseThrow(() ->
                 new NotFoundException("Нет юзера с таким ID = " + userId));
         Item item = itemRepository.findById(bookingCreateDto.getItemId()).orElseThrow(() ->
                 new NotFoundException("Нет вещи с таким ID = " + bookingCreateDto.getItemId()));
-        if (item.getOwner().getId().equals(userId)) {
-            throw new NotFoundException("Пользователь не может арендовать вещь, он уже ее владелец");
+        return BookingMapper.toBookingRequestDto(book(bookingCreateDto, user, item));
+    }
+
+    /**
+     * Пакет бронирует все или ничего: вещи читаются одним запросом, интервалы занимаются в индексе по очереди,
+     * поэтому пересечения внутри пакета тоже отклоняются, а вставки уходят в БД JDBC-пакетами при коммите.
+     */
+    @Transactional
+    @Override
+    public List<BookingRequestDto> addBookings(List<BookingCreateDto> bookingCreateDtos, Long userId) {
+        if (bookingCreateDtos.isEmpty() || bookingCreateDtos.size() > BATCH_MAX_SIZE) {
+            throw new ValidationException("Размер пакета должен быть от 1 до " + BATCH_MAX_SIZE);
         }
-        if (!item.getAvailable()) {
-            throw new AvailableItemException("Вещь с id " + bookingCreateDto.getItemId() + " не доступна");
+        bookingCreateDtos.forEach(this::validateDates);
+        if (!idRegistry.containsUser(userId)) {
+            throw new NotFoundException("Нет юзера с таким ID = " + userId);
         }
-        Booking booking = BookingMapper.toBooking(bookingCreateDto,user,item);
-        return BookingMapper.toBookingRequestDto(bookingRepository.save(booking));
+        bookingCreateDtos.stream()
+                .map(BookingCreateDto::getItemId)
+                .filter(itemId -> !idRegistry.containsItem(itemId))
+                .findFirst()
+                .ifPresent(itemId -> {
+                    throw new NotFoundException("Нет вещи с таким ID = " + itemId);
+                });
+        User user = userRepository.findById(userId).orElseThrow(() ->
+                new NotFoundException("Нет юзера с таким ID = " + userId));
+        Map<Long, Item> items = itemRepository.findAllById(bookingCreateDtos.stream()
+                        .map(BookingCreateDto::getItemId)
+                        .collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        return bookingCreateDtos.stream()
+                .map(bookingCreateDto -> {
+                    Item item = items.get(bookingCreateDto.getItemId());
+                    if (item == null) {
+                        throw new NotFoundException("Нет вещи с таким ID = " + bookingCreateDto.getItemId());
+                    }
+                    return BookingMapper.toBookingRequestDto(book(bookingCreateDto, user, item));
+                })
+                .toList();
     }
 
-    @Transactional
+    /**
+     * Подтверждение сначала блокирует строку вещи (select ... for update): подтверждения бронирований одной вещи
+     * выполняются по очереди, и проверка пересечений видит уже зафиксированные подтверждения. Решение проверяет
+     * версию бронирования, поэтому из параллельных решений по одному бронированию фиксируется одно,
+     * а проигравшие транзакции повторяются на свежих данных, не более DECISION_ATTEMPTS раз.
+     */
     @Override
     public BookingRequestDto approveOrRejectBooking(Long userId, Long bookingId, Boolean approved) {
-        userRepository.findById(userId).orElseThrow(() ->
-                new ValidationException("Нет юзера с таким ID = " + userId));
+        if (!idRegistry.containsUser(userId)) {
+            throw new ValidationException("Нет юзера с таким ID = " + userId);
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> decide(userId, bookingId, approved));
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt == DECISION_ATTEMPTS) {
+                    throw e;
+                }
+                log.debug("Конфликт версий при решении по бронированию {}, попытка {}", bookingId, attempt);
+            }
+        }
+    }
+
+    private BookingRequestDto decide(Long userId, Long bookingId, Boolean approved) {
         Booking booking = bookingRepository.findById(bookingId).orElseThrow(() ->
                 new NotFoundException("Не найдено бронирование с id = " + bookingId));
         if (!booking.getItem().getOwner().getId().equals(userId)) {
@@ -62,8 +132,23 @@ public class BookingServiceImpl implements BookingService {
         if (!booking.getStatus().equals(Status.WAITING)) {
             throw new AvailableItemException("Нельзя апрувнуть или отклонить, статус не Waiting");
         }
+        if (approved) {
+            Long itemId = booking.getItem().getId();
+            itemRepository.findByIdForUpdate(itemId);
+            if (bookingRepository.existsByItemIdAndStatusAndIdNotAndStartBeforeAndEndAfter(itemId, Status.APPROVED,
+                    bookingId, booking.getEnd(), booking.getStart())) {
+                throw new AvailableItemException("Вещь с id " + itemId + " уже забронирована на эти даты");
+            }
+        }
         booking.setStatus(approved ? Status.APPROVED : Status.REJECTED);
-        return BookingMapper.toBookingRequestDto(bookingRepository.save(booking));
+        Booking saved = bookingRepository.save(booking);
+        if (approved) {
+            itemDetailsCache.evictBookings(saved.getItem().getId());
+        } else {
+            availabilityIndex.releaseAfterCommit(saved.getItem().getId(), saved.getId());
+        }
+        bookingOutbox.append(saved, approved ? BookingEventType.APPROVED : BookingEventType.REJECTED);
+        return BookingMapper.toBookingRequestDto(saved);
     }
 
     @Override
@@ -77,44 +162,65 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    public Collection<BookingRequestDto> getAllBookingsByUser(Long userId, String state) {
-        State bookingState;
-        try {
-            bookingState = State.valueOf(state);
-        } catch (IllegalArgumentException e) {
-            throw new InvalidStateException("Unknown state: " + state);
-        }
-        userRepository.findById(userId).orElseThrow(() ->
-                new NotFoundException("Пользователя нет с таким id = " + userId));
-        Collection<Booking> bookings = switch (bookingState) {
-            case ALL -> bookingRepository.findAllByBookerIdOrderByStartDesc(userId);
-            case CURRENT -> bookingRepository.findAllByBookerIdAndStartIsBeforeAndEndIsAfterOrderByStartDesc(userId, LocalDateTime.now(), LocalDateTime.now());
-            case FUTURE -> bookingRepository.findAllByBookerIdAndStartIsAfterOrderByStartDesc(userId, LocalDateTime.now());
-            case PAST -> bookingRepository.findAllByBookerIdAndEndIsBeforeOrderByStartDesc(userId, LocalDateTime.now());
-            case WAITING -> bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(userId, Status.WAITING);
-            case REJECTED -> bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(userId, Status.REJECTED);
-        };
-        return BookingMapper.toListBookingRequestDto(bookings);
+    public List<BookingRequestDto> getAllBookingsByUser(Long userId, String state, int from, int size, String cursor) {
+        return findBookings(BookingSpecifications.byBooker(userId), userId, state, from, size, cursor);
     }
 
     @Override
-    public Collection<BookingRequestDto> getAllBookingsAllItemsByOwner(Long userId, String state) {
-        State bookingState;
+    public List<BookingRequestDto> getAllBookingsAllItemsByOwner(Long userId, String state, int from, int size, String cursor) {
+        return findBookings(BookingSpecifications.byItemOwner(userId), userId, state, from, size, cursor);
+    }
+
+    private void validateDates(BookingCreateDto bookingCreateDto) {
+        if (bookingCreateDto.getEnd() == null || bookingCreateDto.getStart() == null) {
+            throw new ValidationException("Начало или конец аренды должен быть заполнен");
+        }
+        if (bookingCreateDto.getEnd().isBefore(bookingCreateDto.getStart()) || bookingCreateDto.getEnd().isEqual(bookingCreateDto.getStart())) {
+            throw new ValidationException("Конец букинга не может равняться или быть раньше начала");
+        }
+    }
+
+    private Booking book(BookingCreateDto bookingCreateDto, User user, Item item) {
+        if (item.getOwner().getId().equals(user.getId())) {
+            throw new NotFoundException("Пользователь не может арендовать вещь, он уже ее владелец");
+        }
+        if (!item.getAvailable()) {
+            throw new AvailableItemException("Вещь с id " + bookingCreateDto.getItemId() + " не доступна");
+        }
+        if (!availabilityIndex.isFree(item.getId(), bookingCreateDto.getStart(), bookingCreateDto.getEnd())) {
+            throw new AvailableItemException("Вещь с id " + bookingCreateDto.getItemId() + " уже забронирована на эти даты");
+        }
+        Booking booking = bookingRepository.save(BookingMapper.toBooking(bookingCreateDto, user, item));
+        if (!availabilityIndex.tryReserve(item.getId(), booking.getId(), booking.getStart(), booking.getEnd())) {
+            throw new AvailableItemException("Вещь с id " + bookingCreateDto.getItemId() + " уже забронирована на эти даты");
+        }
+        bookingOutbox.append(booking, BookingEventType.CREATED);
+        return booking;
+    }
+
+    private List<BookingRequestDto> findBookings(Specification<Booking> role, Long userId, String state,
+                                                 int from, int size, String cursor) {
+        State bookingState = parseState(state);
+        if (!idRegistry.containsUser(userId)) {
+            throw new NotFoundException("Пользователя нет с таким id = " + userId);
+        }
+        if (size <= 0 || from < 0) {
+            throw new ValidationException("Некорректные параметры пагинации from = " + from + ", size = " + size);
+        }
+        BookingCursor after = BookingCursor.decode(cursor);
+        int offset = cursor == null || cursor.isBlank() ? from / size * size : 0;
+        Specification<Booking> specification = BookingSpecifications.fetchItemAndBooker()
+                .and(role)
+                .and(BookingSpecifications.inState(bookingState, LocalDateTime.now()))
+                .and(BookingSpecifications.after(after));
+        return BookingMapper.toListBookingRequestDto(bookingRepository.findPage(specification, offset, size));
+    }
+
+    private static State parseState(String state) {
         try {
-            bookingState = State.valueOf(state);
+            return State.valueOf(state);
         } catch (IllegalArgumentException e) {
             throw new InvalidStateException("Unknown state: " + state);
         }
-        userRepository.findById(userId).orElseThrow(() ->
-                new NotFoundException("Пользователя нет с таким id = " + userId));
-        Collection<Booking> bookings = switch (bookingState) {
-            case ALL -> bookingRepository.findAllByItemOwnerIdOrderByStartDesc(userId);
-            case CURRENT -> bookingRepository.findAllByItemOwnerIdAndStartIsBeforeAndEndIsAfterOrderByStartDesc(userId, LocalDateTime.now(), LocalDateTime.now());
-            case FUTURE -> bookingRepository.findAllByItemOwnerIdAndStartIsAfterOrderByStartDesc(userId, LocalDateTime.now());
-            case PAST -> bookingRepository.findAllByItemOwnerIdAndEndIsBeforeOrderByStartDesc(userId, LocalDateTime.now());
-            case WAITING -> bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(userId, Status.WAITING);
-            case REJECTED -> bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(userId, Status.REJECTED);
-        };
-        return BookingMapper.toListBookingRequestDto(bookings);
     }
 }
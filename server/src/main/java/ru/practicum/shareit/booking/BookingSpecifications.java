@@ -0,0 +1,73 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.criteria.Fetch;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+
+/**
+ * Условия выборки бронирований, из которых собирается один запрос для любой пары (роль, состояние).
+ */
+public final class BookingSpecifications {
+
+    private BookingSpecifications() {
+    }
+
+    public static Specification<Booking> byBooker(Long userId) {
+        return (root, query, cb) -> cb.equal(root.get("booker").get("id"), userId);
+    }
+
+    public static Specification<Booking> byItemOwner(Long userId) {
+        return (root, query, cb) -> cb.equal(item(root).get("owner").get("id"), userId);
+    }
+
+    public static Specification<Booking> inState(State state, LocalDateTime now) {
+        return (root, query, cb) -> switch (state) {
+            case ALL -> null;
+            case CURRENT -> cb.and(cb.lessThan(root.get("start"), now), cb.greaterThan(root.get("end"), now));
+            case PAST -> cb.lessThan(root.get("end"), now);
+            case FUTURE -> cb.greaterThan(root.get("start"), now);
+            case WAITING -> cb.equal(root.get("status"), Status.WAITING);
+            case REJECTED -> cb.equal(root.get("status"), Status.REJECTED);
+        };
+    }
+
+    /**
+     * Бронирования, идущие после курсора в порядке (start desc, id desc).
+     */
+    public static Specification<Booking> after(BookingCursor cursor) {
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("start"), cursor.start()),
+                cb.and(cb.equal(root.get("start"), cursor.start()), cb.lessThan(root.get("id"), cursor.id())));
+    }
+
+    /**
+     * Подгружает вещь с владельцем и запросом и арендатора тем же запросом, что и сами бронирования.
+     */
+    public static Specification<Booking> fetchItemAndBooker() {
+        return (root, query, cb) -> {
+            if (query.getResultType() != Long.class && query.getResultType() != long.class) {
+                Fetch<Booking, Item> item = root.fetch("item");
+                item.fetch("owner");
+                item.fetch("request", JoinType.LEFT);
+                root.fetch("booker");
+            }
+            return null;
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Join<Booking, Item> item(Root<Booking> root) {
+        return root.getFetches().stream()
+                .filter(fetch -> fetch.getAttribute().getName().equals("item"))
+                .findFirst()
+                .map(fetch -> (Join<Booking, Item>) fetch)
+                .orElseGet(() -> root.join("item"));
+    }
+}
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.booking.dto;
+
+import ru.practicum.shareit.booking.model.BookingEventType;
+
+/**
+ * Событие, которое диспетчер outbox публикует слушателям внутри приложения. Доставка «хотя бы один раз»,
+ * поэтому слушатели должны быть идемпотентны.
+ */
+public record BookingEvent(Long id, BookingEventType type, Long bookingId, Long itemId) {
+}
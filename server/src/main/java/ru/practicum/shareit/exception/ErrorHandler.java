@@ -1,10 +1,14 @@
 package ru.practicum.shareit.exception;
 
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.async.AsyncRequestNotUsableException;
 
+@Slf4j
 @RestControllerAdvice
 public class ErrorHandler {
 
@@ -44,6 +48,15 @@ public class ErrorHandler {
         );
     }
 
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleOptimisticLockingFailureException(final OptimisticLockingFailureException e) {
+        return new ErrorResponse(
+                "Объект был изменен параллельным запросом",
+                e.getMessage()
+        );
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ErrorResponse handleAvailableItemException(final AvailableItemException e) {
@@ -53,6 +66,14 @@ public class ErrorHandler {
         );
     }
 
+    /**
+     * Клиент закрыл соединение посреди ответа, например SSE-ленты запросов: ответ уже начат, писать в него нечего.
+     */
+    @ExceptionHandler
+    public void handleClientDisconnect(final AsyncRequestNotUsableException e) {
+        log.debug("Клиент отключился: {}", e.getMessage());
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ErrorResponse handlerAnyException(final RuntimeException e) {
@@ -0,0 +1,41 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.Collection;
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "database", matchIfMissing = true)
+public class DatabaseItemSearchIndex implements ItemSearchIndex {
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<ItemDto> search(String text, int from, int size) {
+        String escaped = text.toLowerCase()
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return itemRepository.search("%" + escaped + "%", escaped + "%", PageRequest.of(from / size, size)).stream()
+                .map(item -> ItemMapper.toItemDto(item, null, null, null))
+                .toList();
+    }
+
+    @Override
+    public void index(Item item) {
+    }
+
+    @Override
+    public void removeAllByOwner(Long ownerId) {
+    }
+
+    @Override
+    public void removeAll(Collection<Long> itemIds) {
+    }
+}
@@ -0,0 +1,217 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Инвертированный индекс триграмм названия и описания доступных вещей.
+ * Списки вхождений неизменяемы и заменяются целиком, поэтому поиск идет без блокировок;
+ * изменения индекса сериализуются одной блокировкой и не обращаются к БД.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "memory")
+public class InMemoryItemSearchIndex implements ItemSearchIndex {
+    private static final int GRAM = 3;
+    private static final long[] NO_IDS = new long[0];
+
+    private final ItemRepository itemRepository;
+    private final Map<Long, Document> documents = new ConcurrentHashMap<>();
+    private final Map<String, long[]> postings = new ConcurrentHashMap<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<Item> items = itemRepository.findAll();
+        writeLock.lock();
+        try {
+            documents.clear();
+            postings.clear();
+            items.forEach(this::put);
+        } finally {
+            writeLock.unlock();
+        }
+        log.info("Поисковый индекс вещей построен: {} доступных вещей", documents.size());
+    }
+
+    @Override
+    public List<ItemDto> search(String text, int from, int size) {
+        String query = text.toLowerCase();
+        return candidates(query)
+                .filter(document -> document.matches(query))
+                .sorted(Comparator.comparingInt((Document document) -> document.rank(query))
+                        .thenComparingLong(document -> document.item().getId()))
+                .skip(from)
+                .limit(size)
+                .map(Document::item)
+                .toList();
+    }
+
+    @Override
+    public void index(Item item) {
+        writeLock.lock();
+        try {
+            remove(item.getId());
+            put(item);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void removeAllByOwner(Long ownerId) {
+        writeLock.lock();
+        try {
+            documents.values().stream()
+                    .filter(document -> document.ownerId().equals(ownerId))
+                    .map(document -> document.item().getId())
+                    .toList()
+                    .forEach(this::remove);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void removeAll(Collection<Long> itemIds) {
+        writeLock.lock();
+        try {
+            itemIds.forEach(this::remove);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private Stream<Document> candidates(String query) {
+        if (query.length() < GRAM) {
+            return documents.values().stream();
+        }
+        long[] ids = null;
+        for (String gram : grams(query)) {
+            long[] posting = postings.getOrDefault(gram, NO_IDS);
+            ids = ids == null ? posting : intersect(ids, posting);
+            if (ids.length == 0) {
+                return Stream.empty();
+            }
+        }
+        return Arrays.stream(ids)
+                .mapToObj(documents::get)
+                .filter(document -> document != null);
+    }
+
+    private void put(Item item) {
+        if (!Boolean.TRUE.equals(item.getAvailable())) {
+            return;
+        }
+        Document document = new Document(ItemMapper.toItemDto(item, null, null, null),
+                item.getOwner().getId(),
+                item.getName().toLowerCase(),
+                item.getDescription().toLowerCase());
+        documents.put(item.getId(), document);
+        for (String gram : document.grams()) {
+            postings.compute(gram, (key, ids) -> insert(ids == null ? NO_IDS : ids, item.getId()));
+        }
+    }
+
+    private void remove(Long itemId) {
+        Document document = documents.remove(itemId);
+        if (document == null) {
+            return;
+        }
+        for (String gram : document.grams()) {
+            postings.computeIfPresent(gram, (key, ids) -> {
+                long[] updated = delete(ids, itemId);
+                return updated.length == 0 ? null : updated;
+            });
+        }
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private static long[] insert(long[] ids, long id) {
+        int position = Arrays.binarySearch(ids, id);
+        if (position >= 0) {
+            return ids;
+        }
+        position = -position - 1;
+        long[] updated = new long[ids.length + 1];
+        System.arraycopy(ids, 0, updated, 0, position);
+        updated[position] = id;
+        System.arraycopy(ids, position, updated, position + 1, ids.length - position);
+        return updated;
+    }
+
+    private static long[] delete(long[] ids, long id) {
+        int position = Arrays.binarySearch(ids, id);
+        if (position < 0) {
+            return ids;
+        }
+        long[] updated = new long[ids.length - 1];
+        System.arraycopy(ids, 0, updated, 0, position);
+        System.arraycopy(ids, position + 1, updated, position, ids.length - position - 1);
+        return updated;
+    }
+
+    private static long[] intersect(long[] left, long[] right) {
+        long[] result = new long[Math.min(left.length, right.length)];
+        int size = 0;
+        int i = 0;
+        int j = 0;
+        while (i < left.length && j < right.length) {
+            if (left[i] < right[j]) {
+                i++;
+            } else if (left[i] > right[j]) {
+                j++;
+            } else {
+                result[size++] = left[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    private record Document(ItemDto item, Long ownerId, String name, String description) {
+
+        boolean matches(String query) {
+            return name.contains(query) || description.contains(query);
+        }
+
+        int rank(String query) {
+            if (name.startsWith(query)) {
+                return 0;
+            }
+            return name.contains(query) ? 1 : 2;
+        }
+
+        Set<String> grams() {
+            Set<String> grams = InMemoryItemSearchIndex.grams(name);
+            grams.addAll(InMemoryItemSearchIndex.grams(description));
+            return grams;
+        }
+    }
+}
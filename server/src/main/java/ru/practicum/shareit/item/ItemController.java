@@ -2,11 +2,13 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 
 import java.util.Collection;
+import java.util.List;
 
 
 @RestController
@@ -17,7 +19,10 @@ public class ItemController {
     public static final String HEADER = "X-Sharer-User-Id";
 
     @GetMapping("/{itemId}")
-    public ItemDto getById(@RequestHeader(HEADER) Long userId, @PathVariable Long itemId) {
+    public ItemDto getById(@RequestHeader(HEADER) Long userId, @PathVariable Long itemId, WebRequest request) {
+        if (request.checkNotModified(itemService.getETag(userId, itemId))) {
+            return null;
+        }
         return itemService.getById(userId, itemId);
     }
 
@@ -27,8 +32,10 @@ public class ItemController {
     }
 
     @GetMapping("/search")
-    public Collection<Item> searchItem(@RequestParam String text) {
-        return itemService.searchItem(text);
+    public Collection<ItemDto> searchItem(@RequestParam String text,
+                                          @RequestParam(defaultValue = "0") int from,
+                                          @RequestParam(defaultValue = "10") int size) {
+        return itemService.searchItem(text, from, size);
     }
 
     @PostMapping
@@ -36,8 +43,13 @@ public class ItemController {
         return itemService.create(userId,itemDto);
     }
 
+    @PostMapping("/batch")
+    public List<ItemDto> createAll(@RequestHeader(HEADER) Long userId, @RequestBody List<ItemDto> itemDtos) {
+        return itemService.createAll(userId, itemDtos);
+    }
+
     @PatchMapping("/{itemId}")
-    public Item update(@RequestHeader(HEADER) Long userId, @PathVariable Long itemId, @RequestBody Item item) {
+    public ItemDto update(@RequestHeader(HEADER) Long userId, @PathVariable Long itemId, @RequestBody Item item) {
         return itemService.update(userId, itemId, item);
     }
 
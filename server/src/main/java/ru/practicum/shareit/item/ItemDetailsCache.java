@@ -0,0 +1,80 @@
+package ru.practicum.shareit.item;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.BookingItemDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Кэш карточки вещи (данные вещи и комментарии) и отсортированного по началу списка подтвержденных бронирований вещи.
+ * Записи сбрасываются сразу и повторно после коммита, чтобы параллельное чтение не вернуло в кэш старое состояние.
+ */
+@Component
+public class ItemDetailsCache {
+    private final Cache<Long, CachedItem> items;
+    private final Cache<Long, List<BookingItemDto>> approvedBookings;
+
+    public ItemDetailsCache(@Value("${shareit.cache.items.maximum-size:10000}") long maximumSize,
+                            @Value("${shareit.cache.items.expire-after-write:10m}") Duration expireAfterWrite) {
+        items = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+        approvedBookings = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+    }
+
+    public Optional<CachedItem> getItem(Long itemId, Function<Long, CachedItem> loader) {
+        return Optional.ofNullable(items.get(itemId, loader));
+    }
+
+    public List<BookingItemDto> getApprovedBookings(Long itemId, Function<Long, List<BookingItemDto>> loader) {
+        return approvedBookings.get(itemId, loader);
+    }
+
+    public void evictItem(Long itemId) {
+        evict(() -> items.invalidate(itemId));
+    }
+
+    public void evictBookings(Long itemId) {
+        evict(() -> approvedBookings.invalidate(itemId));
+    }
+
+    public void evictItems(Collection<Long> itemIds) {
+        evict(() -> items.invalidateAll(itemIds));
+    }
+
+    public void evictBookings(Collection<Long> itemIds) {
+        evict(() -> approvedBookings.invalidateAll(itemIds));
+    }
+
+    private static void evict(Runnable eviction) {
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    eviction.run();
+                }
+            });
+        }
+    }
+
+    /**
+     * versionTag меняется вместе с версией вещи и составом комментариев, включая версии их авторов.
+     */
+    public record CachedItem(ItemDto item, Long ownerId, String versionTag) {
+    }
+}
@@ -2,7 +2,10 @@ package ru.practicum.shareit.item;
 
 import ru.practicum.shareit.booking.BookingMapper;
 import ru.practicum.shareit.booking.dto.BookingItemDto;
+import ru.practicum.shareit.item.dto.ItemAnswerDto;
+import ru.practicum.shareit.item.dto.ItemAnswerView;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
@@ -22,6 +25,13 @@ public class ItemMapper {
     public static ItemDto toItemDto(Item item,
                                     BookingItemDto lastBooking,
                                     BookingItemDto nextBooking) {
+        return toItemDto(item, lastBooking, nextBooking, item.getComments());
+    }
+
+    public static ItemDto toItemDto(Item item,
+                                    BookingItemDto lastBooking,
+                                    BookingItemDto nextBooking,
+                                    Collection<Comment> comments) {
         return ItemDto.builder().id(item.getId())
                 .id(item.getId())
                 .name(item.getName())
@@ -30,7 +40,7 @@ public class ItemMapper {
                 .requestId(item.getRequest() != null ? item.getRequest().getId() : null)
                 .lastBooking(lastBooking)
                 .nextBooking(nextBooking)
-                .comments(CommentMapper.toCommentDtoCollection(item.getComments()))
+                .comments(CommentMapper.toCommentDtoCollection(comments))
                 .build();
     }
 
@@ -41,4 +51,12 @@ public class ItemMapper {
                                 BookingMapper.toBookingItemDto(item.getBookings() == null || item.getBookings().isEmpty() ? null : item.getBookings().getLast())))
                 .collect(Collectors.toList());
     }
-}
\ No newline at end of file
+
+    public static ItemAnswerDto toItemAnswerDto(ItemAnswerView answer) {
+        return ItemAnswerDto.builder()
+                .id(answer.getId())
+                .name(answer.getName())
+                .ownerId(answer.getOwnerId())
+                .build();
+    }
+}
@@ -1,15 +1,47 @@
 package ru.practicum.shareit.item;
 
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.dto.ItemAnswerView;
 import ru.practicum.shareit.item.model.Item;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
-    Collection<Item> findByNameContainsIgnoringCaseOrDescriptionContainsIgnoringCase(String name, String description);
+    @Query("select i from Item i where i.available = true " +
+            "and (lower(i.name) like :pattern escape '\\' or lower(i.description) like :pattern escape '\\') " +
+            "order by case when lower(i.name) like :prefix escape '\\' then 0 " +
+            "when lower(i.name) like :pattern escape '\\' then 1 else 2 end, i.id")
+    List<Item> search(String pattern, String prefix, Pageable pageable);
 
+    @Query("select i from Item i join fetch i.owner left join fetch i.request r left join fetch r.requester " +
+            "where i.owner.id = :ownerId order by i.id")
     Collection<Item> findAllByOwnerId(Long ownerId);
+
+    @Query("select i.id from Item i where i.owner.id = :ownerId")
+    List<Long> findIdsByOwnerId(Long ownerId);
+
+    @Query("select i.id as id, i.name as name, i.owner.id as ownerId, i.request.id as requestId " +
+            "from Item i where i.request.id in :requestIds order by i.id")
+    List<ItemAnswerView> findAnswersByRequestIdIn(Collection<Long> requestIds);
+
+    @Query("select i.id from Item i where i.request.requester.id = :requesterId")
+    List<Long> findIdsByRequestRequesterId(Long requesterId);
+
+    /**
+     * Читает вещь с блокировкой строки (select ... for update) до конца транзакции: параллельные транзакции
+     * с тем же вызовом выстраиваются в очередь по вещи, и каждая следующая видит изменения предыдущей.
+     * Версия вещи при этом не меняется.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i where i.id = :itemId")
+    Optional<Item> findByIdForUpdate(Long itemId);
 }
\ No newline at end of file
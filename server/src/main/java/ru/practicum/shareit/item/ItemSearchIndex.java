@@ -0,0 +1,22 @@
+package ru.practicum.shareit.item;
+
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Поиск доступных вещей по вхождению текста в название или описание без учета регистра.
+ * Реализация выбирается свойством shareit.search.engine: database (по умолчанию) или memory.
+ */
+public interface ItemSearchIndex {
+
+    List<ItemDto> search(String text, int from, int size);
+
+    void index(Item item);
+
+    void removeAllByOwner(Long ownerId);
+
+    void removeAll(Collection<Long> itemIds);
+}
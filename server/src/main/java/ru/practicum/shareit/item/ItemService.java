@@ -5,16 +5,21 @@ import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 
 import java.util.Collection;
+import java.util.List;
 
 public interface ItemService {
 
     ItemDto create(Long userId, ItemDto itemDto);
 
-    Item update(Long userId, Long itemId, Item item);
+    List<ItemDto> createAll(Long userId, List<ItemDto> itemDtos);
+
+    ItemDto update(Long userId, Long itemId, Item item);
 
     ItemDto getById(Long userId, Long itemId);
 
-    Collection<Item> searchItem(String text);
+    String getETag(Long userId, Long itemId);
+
+    Collection<ItemDto> searchItem(String text, int from, int size);
 
     CommentDto addComment(Long userId, Long itemId, CommentDto commentDto);
 
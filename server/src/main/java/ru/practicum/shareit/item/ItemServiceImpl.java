@@ -3,9 +3,15 @@ package ru.practicum.shareit.item;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.StringUtils;
+import ru.practicum.shareit.ETags;
+import ru.practicum.shareit.IdRegistry;
 import ru.practicum.shareit.booking.BookingMapper;
 import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingItemDto;
+import ru.practicum.shareit.booking.dto.NearestBookingView;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
@@ -21,43 +27,105 @@ import ru.practicum.shareit.user.model.User;
 import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class ItemServiceImpl implements ItemService {
+    private static final int BATCH_MAX_SIZE = 1000;
+
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final IdRegistry idRegistry;
     private final CommentRepository commentRepository;
     private final BookingRepository bookingRepository;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemDetailsCache itemDetailsCache;
 
     @Override
     public ItemDto create(Long userId, ItemDto itemDto) {
-        User user = userRepository.findById(userId).orElseThrow(() ->
-                new NotFoundException("Пользователь с таким Id " + userId + " не найден"));
+        if (!idRegistry.containsUser(userId)) {
+            throw new NotFoundException("Пользователь с таким Id " + userId + " не найден");
+        }
         ItemRequest itemRequest = null;
         if (itemDto.getRequestId() != null) {
             itemRequest = itemRequestRepository.findById(itemDto.getRequestId()).orElseThrow(() -> {
                 throw new NotFoundException("Запрос с id = " + itemDto.getRequestId() + " не найден!");
             });
         }
-        return ItemMapper.toItemDto(itemRepository.save(
+        Item item = itemRepository.save(
                 Item.builder()
                         .name(itemDto.getName())
-                        .owner(user)
+                        .owner(userRepository.getReferenceById(userId))
                         .description(itemDto.getDescription())
                         .available(itemDto.getAvailable())
                         .request(itemRequest)
                         .build()
-        ), null, null);
+        );
+        itemSearchIndex.index(item);
+        return ItemMapper.toItemDto(item, null, null);
     }
 
+    /**
+     * Все вещи сохраняются одним saveAll: id берутся из пула последовательности, и вставки уходят в БД
+     * JDBC-пакетами при коммите. Ошибка в любой вещи откатывает весь пакет, а в поисковый индекс
+     * вещи попадают только после коммита.
+     */
+    @Transactional
     @Override
-    public Item update(Long userId, Long itemId, Item newItem) {
-        userRepository.findById(userId).orElseThrow(() ->
-                new NotFoundException("Пользователь с таким Id " + userId + " не найден"));
+    public List<ItemDto> createAll(Long userId, List<ItemDto> itemDtos) {
+        if (itemDtos.isEmpty() || itemDtos.size() > BATCH_MAX_SIZE) {
+            throw new ValidationException("Размер пакета должен быть от 1 до " + BATCH_MAX_SIZE);
+        }
+        if (!idRegistry.containsUser(userId)) {
+            throw new NotFoundException("Пользователь с таким Id " + userId + " не найден");
+        }
+        Set<Long> requestIds = itemDtos.stream()
+                .map(ItemDto::getRequestId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, ItemRequest> requests = itemRequestRepository.findAllById(requestIds).stream()
+                .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+        requestIds.stream()
+                .filter(requestId -> !requests.containsKey(requestId))
+                .findFirst()
+                .ifPresent(requestId -> {
+                    throw new NotFoundException("Запрос с id = " + requestId + " не найден!");
+                });
+        User owner = userRepository.getReferenceById(userId);
+        List<Item> items = itemRepository.saveAll(itemDtos.stream()
+                .map(itemDto -> Item.builder()
+                        .name(itemDto.getName())
+                        .owner(owner)
+                        .description(itemDto.getDescription())
+                        .available(itemDto.getAvailable())
+                        .request(itemDto.getRequestId() == null ? null : requests.get(itemDto.getRequestId()))
+                        .build())
+                .toList());
+        indexAfterCommit(items);
+        return items.stream()
+                .map(item -> ItemMapper.toItemDto(item, null, null))
+                .toList();
+    }
+
+    @Transactional
+    @Override
+    public ItemDto update(Long userId, Long itemId, Item newItem) {
+        if (!idRegistry.containsUser(userId)) {
+            throw new NotFoundException("Пользователь с таким Id " + userId + " не найден");
+        }
+        if (!idRegistry.containsItem(itemId)) {
+            throw new NotFoundException("Объект с таким Id " + itemId + " не найден");
+        }
         Item oldItem = itemRepository.findById(itemId).orElseThrow(() ->
                 new NotFoundException("Объект с таким Id " + itemId + " не найден"));
         if (!oldItem.getOwner().getId().equals(userId)) {
@@ -68,41 +136,81 @@ public class ItemServiceImpl implements ItemService {
         newItem.setId(Optional.ofNullable(newItem.getId()).orElse(itemId));
         newItem.setAvailable(Optional.ofNullable(newItem.getAvailable()).orElse(oldItem.getAvailable()));
         newItem.setOwner(oldItem.getOwner());
-        return itemRepository.save(newItem);
+        newItem.setVersion(oldItem.getVersion());
+        Item item = itemRepository.save(newItem);
+        indexAfterCommit(List.of(item));
+        itemDetailsCache.evictItem(itemId);
+        return ItemMapper.toItemDto(item, null, null);
     }
 
     @Override
     public ItemDto getById(Long userId, Long itemId) {
-        userRepository.findById(userId).orElseThrow(() ->
-                new NotFoundException("Пользователь с таким Id " + userId + " не найден"));
-        Item item = itemRepository.findById(itemId).orElseThrow(() ->
-                new NotFoundException("Объект с таким Id " + itemId + " не найден"));
-        return ItemMapper.toItemDto(item,
-                BookingMapper.toBookingItemDto(bookingRepository.findFirstByItemIdAndItemOwnerIdAndStartBeforeAndStatusOrderByStartDesc(itemId, userId, LocalDateTime.now(), Status.APPROVED).orElse(null)),
-                BookingMapper.toBookingItemDto(bookingRepository.findFirstByItemIdAndItemOwnerIdAndStartAfterAndStatusOrderByStartAsc(itemId, userId, LocalDateTime.now(), Status.APPROVED).orElse(null)));
+        ItemDetailsCache.CachedItem cached = getCachedItem(userId, itemId);
+        if (!cached.ownerId().equals(userId)) {
+            return cached.item().toBuilder().build();
+        }
+        NearestBookings nearest = findNearestBookings(itemId);
+        return cached.item().toBuilder()
+                .lastBooking(nearest.last())
+                .nextBooking(nearest.next())
+                .build();
     }
 
     @Override
-    public Collection<Item> searchItem(String text) {
+    public String getETag(Long userId, Long itemId) {
+        ItemDetailsCache.CachedItem cached = getCachedItem(userId, itemId);
+        if (!cached.ownerId().equals(userId)) {
+            return ETags.of(itemId, cached.versionTag());
+        }
+        NearestBookings nearest = findNearestBookings(itemId);
+        return ETags.of(itemId, cached.versionTag(), bookingId(nearest.last()), bookingId(nearest.next()));
+    }
+
+    @Override
+    public Collection<ItemDto> searchItem(String text, int from, int size) {
         if (!StringUtils.hasText(text)) {
             return Collections.emptyList();
         }
-        return itemRepository.findByNameContainsIgnoringCaseOrDescriptionContainsIgnoringCase(text,text)
-                .stream()
-                .filter(Item::getAvailable)
-                .collect(Collectors.toList());
+        if (from < 0 || size <= 0) {
+            throw new ValidationException("Некорректные параметры пагинации from = " + from + ", size = " + size);
+        }
+        return itemSearchIndex.search(text, from, size);
     }
 
+    @Transactional
     @Override
     public Collection<ItemDto> getAll(Long userId) {
-       userRepository.findById(userId).orElseThrow(() ->
-                new NotFoundException("Пользователь с таким Id " + userId + " не найден"));
-        return ItemMapper.toListItemDto(itemRepository.findAllByOwnerId(userId));
+        if (!idRegistry.containsUser(userId)) {
+            throw new NotFoundException("Пользователь с таким Id " + userId + " не найден");
+        }
+        Collection<Item> items = itemRepository.findAllByOwnerId(userId);
+        if (items.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Long> itemIds = items.stream().map(Item::getId).toList();
+        Map<Long, NearestBookingView> lastBookings = new HashMap<>();
+        Map<Long, NearestBookingView> nextBookings = new HashMap<>();
+        bookingRepository.findNearestApprovedBookings(itemIds, LocalDateTime.now()).forEach(booking ->
+                (booking.getPast() ? lastBookings : nextBookings).put(booking.getItemId(), booking));
+        Map<Long, List<Comment>> comments = commentRepository.findAllByItemIdIn(itemIds).stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId()));
+        return items.stream()
+                .map(item -> ItemMapper.toItemDto(item,
+                        BookingMapper.toNearestBookingDto(lastBookings.get(item.getId())),
+                        BookingMapper.toNearestBookingDto(nextBookings.get(item.getId())),
+                        comments.get(item.getId())))
+                .collect(Collectors.toList());
     }
 
     @Transactional
     @Override
     public CommentDto addComment(Long userId, Long itemId, CommentDto commentDto) {
+        if (!idRegistry.containsUser(userId)) {
+            throw new NotFoundException("Автор не найден с таким id = " + userId);
+        }
+        if (!idRegistry.containsItem(itemId)) {
+            throw new NotFoundException("Вещь не найдена с таким id = " + itemId);
+        }
         User author = userRepository.findById(userId).orElseThrow(() ->
                 new NotFoundException("Автор не найден с таким id = " + userId));
         Item item = itemRepository.findById(itemId).orElseThrow(() ->
@@ -111,6 +219,82 @@ public class ItemServiceImpl implements ItemService {
             throw new ValidationException("Пользователь с id = " + userId + " не брал в аренду вещь с id = " + itemId);
         }
         Comment comment = CommentMapper.toComment(commentDto, author, item, LocalDateTime.now());
+        itemDetailsCache.evictItem(itemId);
             return CommentMapper.toCommentDto(commentRepository.save(comment));
     }
-}
\ No newline at end of file
+
+    private void indexAfterCommit(List<Item> items) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            items.forEach(itemSearchIndex::index);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                items.forEach(itemSearchIndex::index);
+            }
+        });
+    }
+
+    private ItemDetailsCache.CachedItem getCachedItem(Long userId, Long itemId) {
+        if (!idRegistry.containsUser(userId)) {
+            throw new NotFoundException("Пользователь с таким Id " + userId + " не найден");
+        }
+        if (!idRegistry.containsItem(itemId)) {
+            throw new NotFoundException("Объект с таким Id " + itemId + " не найден");
+        }
+        return itemDetailsCache.getItem(itemId, this::loadItem).orElseThrow(() ->
+                new NotFoundException("Объект с таким Id " + itemId + " не найден"));
+    }
+
+    private NearestBookings findNearestBookings(Long itemId) {
+        List<BookingItemDto> bookings = itemDetailsCache.getApprovedBookings(itemId, this::loadApprovedBookings);
+        LocalDateTime now = LocalDateTime.now();
+        int next = firstStartingAfter(bookings, now);
+        int last = next - 1;
+        while (last >= 0 && !bookings.get(last).getStart().isBefore(now)) {
+            last--;
+        }
+        return new NearestBookings(last >= 0 ? bookings.get(last) : null, next < bookings.size() ? bookings.get(next) : null);
+    }
+
+    private ItemDetailsCache.CachedItem loadItem(Long itemId) {
+        return itemRepository.findById(itemId)
+                .map(item -> {
+                    Collection<Comment> comments = commentRepository.findAllByItemIdIn(List.of(itemId));
+                    return new ItemDetailsCache.CachedItem(
+                            ItemMapper.toItemDto(item, null, null, comments),
+                            item.getOwner().getId(),
+                            item.getVersion() + "." + ETags.digest(comments.stream()
+                                    .flatMap(comment -> Stream.of(comment.getId(), comment.getAuthor().getVersion()))));
+                })
+                .orElse(null);
+    }
+
+    private static Long bookingId(BookingItemDto booking) {
+        return booking != null ? booking.getId() : null;
+    }
+
+    private List<BookingItemDto> loadApprovedBookings(Long itemId) {
+        return bookingRepository.findAllByItemIdAndStatusOrderByStartAsc(itemId, Status.APPROVED).stream()
+                .map(BookingMapper::toBookingItemDto)
+                .toList();
+    }
+
+    private static int firstStartingAfter(List<BookingItemDto> bookings, LocalDateTime now) {
+        int low = 0;
+        int high = bookings.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (bookings.get(middle).getStart().isAfter(now)) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+
+    private record NearestBookings(BookingItemDto last, BookingItemDto next) {
+    }
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder(toBuilder = true)
+public class ItemAnswerDto {
+    private Long id;
+    private String name;
+    private Long ownerId;
+}
@@ -4,8 +4,12 @@ import org.springframework.data.domain.Pageable;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestFeedDto;
 
 import java.util.Collection;
 
@@ -24,20 +28,28 @@ public class ItemRequestController {
     }
 
     @GetMapping
-    public Collection<ItemRequestDto> getItemRequestsByOwner(@RequestHeader(HEADER) Long userId) {
+    public Collection<ItemRequestFeedDto> getItemRequestsByOwner(@RequestHeader(HEADER) Long userId) {
         return itemRequestService.getAllItemRequestByOwner(userId);
     }
 
     @GetMapping("/all")
-    public Collection<ItemRequestDto> getItemRequestsAllButOwner(@RequestHeader(HEADER) Long userId,
+    public Collection<ItemRequestFeedDto> getItemRequestsAllButOwner(@RequestHeader(HEADER) Long userId,
                                                            @RequestParam(defaultValue = "0") int from,
                                                            @RequestParam(defaultValue = "10") int size) {
         Pageable pageable = PageRequest.of(from, size, Sort.by("created").descending());
-        return itemRequestService.getAllItemRequestToOtherUser(pageable);
+        return itemRequestService.getAllItemRequestToOtherUser(userId, pageable);
+    }
+
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamItemRequests(@RequestHeader(HEADER) Long userId) {
+        return itemRequestService.subscribe(userId);
     }
 
     @GetMapping("/{requestId}")
-    public ItemRequestDto getItemRequestById(@PathVariable Long requestId) {
+    public ItemRequestDto getItemRequestById(@PathVariable Long requestId, WebRequest request) {
+        if (request.checkNotModified(itemRequestService.getETag(requestId))) {
+            return null;
+        }
         return itemRequestService.getItemRequestById(requestId);
     }
 }
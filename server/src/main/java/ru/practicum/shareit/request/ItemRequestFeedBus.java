@@ -0,0 +1,146 @@
+package ru.practicum.shareit.request;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.request.dto.ItemRequestFeedDto;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Рассылка новых запросов вещей подписчикам SSE-ленты. У каждого подписчика свой ограниченный буфер
+ * и свой виртуальный поток, который отправляет события из буфера, а в паузах шлет heartbeat.
+ * Публикация никогда не ждет подписчиков: тот, чей буфер переполнен, отключается и при переподключении
+ * перечитывает пропущенное через GET /requests/all.
+ */
+@Slf4j
+@Component
+public class ItemRequestFeedBus {
+    private final int bufferSize;
+    private final Duration heartbeat;
+    private final Duration timeout;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    public ItemRequestFeedBus(@Value("${shareit.requests.stream.buffer-size:64}") int bufferSize,
+                              @Value("${shareit.requests.stream.heartbeat:15s}") Duration heartbeat,
+                              @Value("${shareit.requests.stream.timeout:30m}") Duration timeout) {
+        this.bufferSize = bufferSize;
+        this.heartbeat = heartbeat;
+        this.timeout = timeout;
+    }
+
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(userId, emitter);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::complete);
+        emitter.onError(error -> subscriber.close());
+        subscribers.add(subscriber);
+        subscriber.start();
+        return emitter;
+    }
+
+    /**
+     * Внутри транзакции запрос уходит подписчикам только после коммита. Автору собственный запрос не отправляется.
+     */
+    public void publish(ItemRequestFeedDto itemRequest) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            deliver(itemRequest);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                deliver(itemRequest);
+            }
+        });
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(Subscriber::complete);
+    }
+
+    private void deliver(ItemRequestFeedDto itemRequest) {
+        Long requesterId = itemRequest.getRequester().getId();
+        subscribers.forEach(subscriber -> {
+            if (subscriber.userId.equals(requesterId)) {
+                return;
+            }
+            if (!subscriber.buffer.offer(itemRequest)) {
+                log.warn("Буфер ленты запросов пользователя {} переполнен, подписка закрыта", subscriber.userId);
+                subscriber.complete();
+            }
+        });
+    }
+
+    private final class Subscriber {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<ItemRequestFeedDto> buffer;
+        private volatile Thread sender;
+
+        private Subscriber(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        void start() {
+            sender = Thread.ofVirtual().name("request-feed-" + userId).start(this::send);
+        }
+
+        private void send() {
+            try {
+                emitter.send(SseEmitter.event().comment("subscribed"));
+                while (subscribers.contains(this) && !Thread.currentThread().isInterrupted()) {
+                    ItemRequestFeedDto itemRequest = buffer.poll(heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+                    if (itemRequest == null) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    } else {
+                        emitter.send(SseEmitter.event()
+                                .id(String.valueOf(itemRequest.getId()))
+                                .name("item-request")
+                                .data(itemRequest, MediaType.APPLICATION_JSON));
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Подписчик ленты запросов {} отключился: {}", userId, e.getMessage());
+            } finally {
+                close();
+            }
+        }
+
+        void complete() {
+            close();
+            emitter.complete();
+        }
+
+        void close() {
+            if (!subscribers.remove(this)) {
+                return;
+            }
+            Thread current = sender;
+            if (current != null && current != Thread.currentThread()) {
+                current.interrupt();
+            }
+        }
+    }
+}
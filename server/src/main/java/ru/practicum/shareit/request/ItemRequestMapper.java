@@ -1,10 +1,15 @@
 package ru.practicum.shareit.request;
 
 import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.dto.ItemAnswerDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestFeedDto;
+import ru.practicum.shareit.request.dto.ItemRequestFeedView;
 import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.dto.UserNameDto;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.Collection;
 import java.util.List;
 
 public class ItemRequestMapper {
@@ -26,4 +31,27 @@ public class ItemRequestMapper {
                 .items(ItemMapper.toListItemDto(itemRequest.getItems() != null ? itemRequest.getItems() : List.of()))
                 .build();
     }
+
+    public static ItemRequestFeedDto toItemRequestFeedDto(ItemRequestFeedView itemRequest, Collection<ItemAnswerDto> items) {
+        return ItemRequestFeedDto.builder()
+                .id(itemRequest.getId())
+                .description(itemRequest.getDescription())
+                .requester(UserNameDto.builder().id(itemRequest.getRequesterId()).name(itemRequest.getRequesterName()).build())
+                .created(itemRequest.getCreated())
+                .items(items)
+                .build();
+    }
+
+    public static ItemRequestFeedDto toItemRequestFeedDto(ItemRequest itemRequest) {
+        return ItemRequestFeedDto.builder()
+                .id(itemRequest.getId())
+                .description(itemRequest.getDescription())
+                .requester(UserNameDto.builder()
+                        .id(itemRequest.getRequester().getId())
+                        .name(itemRequest.getRequester().getName())
+                        .build())
+                .created(itemRequest.getCreated())
+                .items(List.of())
+                .build();
+    }
 }
\ No newline at end of file
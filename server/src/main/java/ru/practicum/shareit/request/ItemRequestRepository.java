@@ -1,9 +1,13 @@
 package ru.practicum.shareit.request;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.request.dto.ItemRequestFeedView;
 import ru.practicum.shareit.request.model.ItemRequest;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
@@ -13,4 +17,14 @@ public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long>
     Collection<ItemRequest> findAllByRequesterId(Long requesterId);
 
     Optional<ItemRequest> findByIdOrderByCreatedAsc(Long itemRequestId);
+
+    @Query("select r.id as id, r.description as description, r.created as created, " +
+            "u.id as requesterId, u.name as requesterName " +
+            "from ItemRequest r join r.requester u where u.id = :requesterId order by r.created desc")
+    List<ItemRequestFeedView> findFeedByRequesterId(Long requesterId);
+
+    @Query("select r.id as id, r.description as description, r.created as created, " +
+            "u.id as requesterId, u.name as requesterName " +
+            "from ItemRequest r join r.requester u where u.id <> :userId")
+    List<ItemRequestFeedView> findFeedExcludingRequester(Long userId, Pageable pageable);
 }
@@ -1,7 +1,9 @@
 package ru.practicum.shareit.request;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestFeedDto;
 
 import java.util.Collection;
 
@@ -9,10 +11,14 @@ public interface ItemRequestService {
 
     ItemRequestDto addItemRequest(Long userId, ItemRequestDto itemRequestDto);
 
-    Collection<ItemRequestDto> getAllItemRequestByOwner(Long userId);
+    Collection<ItemRequestFeedDto> getAllItemRequestByOwner(Long userId);
 
-    Collection<ItemRequestDto> getAllItemRequestToOtherUser(Pageable pageable);
+    Collection<ItemRequestFeedDto> getAllItemRequestToOtherUser(Long userId, Pageable pageable);
 
     ItemRequestDto getItemRequestById(Long requestId);
 
+    String getETag(Long requestId);
+
+    SseEmitter subscribe(Long userId);
+
 }
\ No newline at end of file
@@ -4,14 +4,30 @@ import org.springframework.data.domain.Pageable;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.ETags;
+import ru.practicum.shareit.IdRegistry;
+import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemAnswerDto;
+import ru.practicum.shareit.item.dto.ItemAnswerView;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestFeedDto;
+import ru.practicum.shareit.request.dto.ItemRequestFeedView;
+import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -19,39 +35,95 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     private final ItemRequestRepository itemRequestRepository;
     private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final IdRegistry idRegistry;
+    private final ItemRequestFeedBus itemRequestFeedBus;
 
     @Override
     @Transactional
     public ItemRequestDto addItemRequest(Long userId, ItemRequestDto itemRequestDto) {
+        if (!idRegistry.containsUser(userId)) {
+            throw new NotFoundException("Пользователь с таким Id " + userId + " не найден");
+        }
         User user = userRepository.findById(userId).orElseThrow(() ->
                 new NotFoundException("Пользователь с таким Id " + userId + " не найден"));
         itemRequestDto.setCreated(LocalDateTime.now());
+        ItemRequest itemRequest = itemRequestRepository.save(ItemRequestMapper.toItemRequest(itemRequestDto, user));
+        itemRequestFeedBus.publish(ItemRequestMapper.toItemRequestFeedDto(itemRequest));
+        return ItemRequestMapper.toItemRequestDto(itemRequest);
+    }
 
-        return ItemRequestMapper.toItemRequestDto(
-                itemRequestRepository.save(ItemRequestMapper.toItemRequest(itemRequestDto, user)));
+    @Override
+    public Collection<ItemRequestFeedDto> getAllItemRequestByOwner(Long userId) {
+        if (!idRegistry.containsUser(userId)) {
+            throw new NotFoundException("Пользователь с таким Id " + userId + " не найден");
+        }
+        return toFeed(itemRequestRepository.findFeedByRequesterId(userId));
     }
 
     @Override
-    public Collection<ItemRequestDto> getAllItemRequestByOwner(Long userId) {
-        userRepository.findById(userId).orElseThrow(() ->
-                new NotFoundException("Пользователь с таким Id " + userId + " не найден"));
-        return itemRequestRepository.findAllByRequesterId(userId).stream()
-                .map(ItemRequestMapper::toItemRequestDto)
-                .collect(Collectors.toList());
+    public Collection<ItemRequestFeedDto> getAllItemRequestToOtherUser(Long userId, Pageable pageable) {
+        if (!idRegistry.containsUser(userId)) {
+            throw new NotFoundException("Пользователь с таким Id " + userId + " не найден");
+        }
+        return toFeed(itemRequestRepository.findFeedExcludingRequester(userId, pageable));
     }
 
     @Override
-    public Collection<ItemRequestDto> getAllItemRequestToOtherUser(Pageable pageable) {
-        return itemRequestRepository.findAll(pageable).stream()
-                .map(ItemRequestMapper::toItemRequestDto)
-                .collect(Collectors.toList());
+    public ItemRequestDto getItemRequestById(Long requestId) {
+        return ItemRequestMapper.toItemRequestDto(findItemRequest(requestId));
+    }
 
+    @Override
+    public SseEmitter subscribe(Long userId) {
+        if (!idRegistry.containsUser(userId)) {
+            throw new NotFoundException("Пользователь с таким Id " + userId + " не найден");
+        }
+        return itemRequestFeedBus.subscribe(userId);
     }
 
+    /**
+     * Тег меняется вместе с версиями запроса, автора и вещей, а также с составом бронирований
+     * и комментариев этих вещей, которые попадают в ответ.
+     */
     @Override
-    public ItemRequestDto getItemRequestById(Long requestId) {
-        return ItemRequestMapper.toItemRequestDto(
-                itemRequestRepository.findByIdOrderByCreatedAsc(requestId).orElseThrow(() ->
-                new NotFoundException("Запроса нет от пользователя с ID  " + requestId)));
+    @Transactional
+    public String getETag(Long requestId) {
+        ItemRequest itemRequest = findItemRequest(requestId);
+        Collection<Item> items = itemRequest.getItems() != null ? itemRequest.getItems() : List.of();
+        return ETags.of(requestId, itemRequest.getVersion(), itemRequest.getRequester().getVersion(),
+                ETags.digest(items.stream().flatMap(ItemRequestServiceImpl::versions)));
+    }
+
+    private static Stream<Object> versions(Item item) {
+        return Stream.of(
+                        Stream.of(item.getId(), item.getVersion()),
+                        item.getBookings().stream().map(Booking::getId),
+                        item.getComments().stream().flatMap(comment ->
+                                Stream.of(comment.getId(), comment.getAuthor().getVersion())))
+                .flatMap(Function.identity());
+    }
+
+    /**
+     * Лента собирается двумя запросами в проекции: запросы с id и именем автора и ответившие на них вещи
+     * с id, названием и владельцем. Сущности и прокси Hibernate в ответ не попадают.
+     */
+    private List<ItemRequestFeedDto> toFeed(List<ItemRequestFeedView> itemRequests) {
+        if (itemRequests.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, List<ItemAnswerDto>> answers = itemRepository.findAnswersByRequestIdIn(
+                        itemRequests.stream().map(ItemRequestFeedView::getId).toList()).stream()
+                .collect(Collectors.groupingBy(ItemAnswerView::getRequestId,
+                        Collectors.mapping(ItemMapper::toItemAnswerDto, Collectors.toList())));
+        return itemRequests.stream()
+                .map(itemRequest -> ItemRequestMapper.toItemRequestFeedDto(itemRequest,
+                        answers.getOrDefault(itemRequest.getId(), List.of())))
+                .toList();
+    }
+
+    private ItemRequest findItemRequest(Long requestId) {
+        return itemRequestRepository.findByIdOrderByCreatedAsc(requestId).orElseThrow(() ->
+                new NotFoundException("Запроса нет от пользователя с ID  " + requestId));
     }
 }
\ No newline at end of file
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.request.dto;
+
+import lombok.Builder;
+import lombok.Data;
+import ru.practicum.shareit.item.dto.ItemAnswerDto;
+import ru.practicum.shareit.user.dto.UserNameDto;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+@Data
+@Builder(toBuilder = true)
+public class ItemRequestFeedDto {
+    private Long id;
+    private String description;
+    private UserNameDto requester;
+    private LocalDateTime created;
+    private Collection<ItemAnswerDto> items;
+}
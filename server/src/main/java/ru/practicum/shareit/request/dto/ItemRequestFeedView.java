@@ -0,0 +1,15 @@
+package ru.practicum.shareit.request.dto;
+
+import java.time.LocalDateTime;
+
+public interface ItemRequestFeedView {
+    Long getId();
+
+    String getDescription();
+
+    LocalDateTime getCreated();
+
+    Long getRequesterId();
+
+    String getRequesterName();
+}
@@ -24,7 +24,8 @@ import java.util.Collection;
 @Builder(toBuilder = true)
 public class ItemRequest {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "requests_seq")
+    @SequenceGenerator(name = "requests_seq", sequenceName = "requests_seq", allocationSize = 50)
     private Long id;
     private String description;
     @ManyToOne
@@ -34,4 +35,6 @@ public class ItemRequest {
     @OneToMany
     @JoinColumn(name = "request_id", referencedColumnName = "id")
     private Collection<Item> items;
+    @Version
+    private Long version;
 }
\ No newline at end of file
@@ -2,6 +2,8 @@ package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.ETags;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 
@@ -17,8 +19,12 @@ public class UserController {
     private final UserService userService;
 
     @GetMapping("/{userId}")
-    public User getById(@PathVariable Long userId) {
-        return userService.getById(userId);
+    public User getById(@PathVariable Long userId, WebRequest request) {
+        User user = userService.getById(userId);
+        if (request.checkNotModified(ETags.of(user.getId(), user.getVersion()))) {
+            return null;
+        }
+        return user;
     }
 
     @GetMapping
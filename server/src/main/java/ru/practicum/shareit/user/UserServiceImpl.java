@@ -4,12 +4,22 @@ import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import ru.practicum.shareit.IdRegistry;
+import ru.practicum.shareit.booking.BookingAvailabilityIndex;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.exception.AlreadyExistsException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.ItemDetailsCache;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemSearchIndex;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Service
@@ -17,6 +27,13 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemDetailsCache itemDetailsCache;
+    private final IdRegistry idRegistry;
+    private final ItemRepository itemRepository;
+    private final BookingAvailabilityIndex availabilityIndex;
+    private final CommentRepository commentRepository;
+    private final BookingRepository bookingRepository;
 
     @Override
     @Transactional
@@ -30,6 +47,9 @@ public class UserServiceImpl implements UserService {
     @Override
     @Transactional
     public User update(Long userId, User newUser) {
+        if (!idRegistry.containsUser(userId)) {
+            throw new NotFoundException("Пользователь с таким Id " + userId + " не найден");
+        }
         User oldUser = userRepository.findById(userId).orElseThrow(() ->
                 new NotFoundException("Пользователь с таким Id " + userId + " не найден"));
         if (userRepository.findByEmail(newUser.getEmail()).isPresent()) {
@@ -38,22 +58,46 @@ public class UserServiceImpl implements UserService {
         newUser.setName(Optional.ofNullable(newUser.getName()).orElse(oldUser.getName()));
         newUser.setEmail(Optional.ofNullable(newUser.getEmail()).orElse(oldUser.getEmail()));
         newUser.setId(Optional.ofNullable(newUser.getId()).orElse(oldUser.getId()));
-        return userRepository.save(newUser);
+        newUser.setVersion(oldUser.getVersion());
+        User user = userRepository.save(newUser);
+        itemDetailsCache.evictItems(findItemsShowingUser(userId));
+        return user;
     }
 
     @Override
     @Transactional
     public void delete(Long userId) {
-        if (userRepository.findById(userId).isPresent()) {
+        if (idRegistry.containsUser(userId)) {
+            List<Long> answerIds = itemRepository.findIdsByRequestRequesterId(userId);
+            List<Long> shownItemIds = findItemsShowingUser(userId);
+            shownItemIds.addAll(answerIds);
+            List<Long> bookedItemIds = bookingRepository.findItemIdsByBookerIdAndStatus(userId, Status.APPROVED);
+            availabilityIndex.releaseBookerAfterCommit(userId);
             userRepository.deleteById(userId);
+            itemSearchIndex.removeAllByOwner(userId);
+            itemSearchIndex.removeAll(answerIds);
+            itemDetailsCache.evictItems(shownItemIds);
+            itemDetailsCache.evictBookings(bookedItemIds);
         } else {
             log.error("Пользователь с таким Id {} не найден", userId);
             throw new NotFoundException("Пользователь с таким Id " + userId + " не найден");
         }
     }
 
+    /**
+     * Вещи, карточки которых в кэше зависят от пользователя: его собственные и те, где он оставил комментарий.
+     */
+    private List<Long> findItemsShowingUser(Long userId) {
+        List<Long> itemIds = new ArrayList<>(itemRepository.findIdsByOwnerId(userId));
+        itemIds.addAll(commentRepository.findItemIdsByAuthorId(userId));
+        return itemIds;
+    }
+
     @Override
     public User getById(Long userId) {
+        if (!idRegistry.containsUser(userId)) {
+            throw new NotFoundException("Пользователь с таким Id " + userId + " не найден");
+        }
         return userRepository.findById(userId).orElseThrow(() ->
                 new NotFoundException("Пользователь с таким Id " + userId + " не найден"));
     }
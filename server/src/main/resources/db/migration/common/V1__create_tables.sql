@@ -1,5 +1,3 @@
-DROP TABLE IF EXISTS users,items,bookings,requests,comments CASCADE;
-
 CREATE TABLE IF NOT EXISTS users (
   id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
   name VARCHAR(255) NOT NULL,
@@ -57,4 +55,4 @@ ALTER TABLE requests ADD FOREIGN KEY (requester_id) REFERENCES users (id) ON del
 
 ALTER TABLE comments ADD FOREIGN KEY (item_id) REFERENCES items (id) ON delete CASCADE;
 
-ALTER TABLE comments ADD FOREIGN KEY (author_id) REFERENCES users (id) ON delete CASCADE;
\ No newline at end of file
+ALTER TABLE comments ADD FOREIGN KEY (author_id) REFERENCES users (id) ON delete CASCADE;
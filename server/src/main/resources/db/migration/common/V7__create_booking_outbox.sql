@@ -0,0 +1,14 @@
+CREATE SEQUENCE IF NOT EXISTS booking_outbox_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS booking_outbox (
+  id BIGINT NOT NULL,
+  booking_id BIGINT NOT NULL,
+  item_id BIGINT NOT NULL,
+  type VARCHAR(10) NOT NULL,
+  created TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+  attempts INTEGER DEFAULT 0 NOT NULL,
+  next_attempt_at TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+  CONSTRAINT pk_booking_outbox PRIMARY KEY (id)
+  );
+
+CREATE INDEX IF NOT EXISTS idx_booking_outbox_next_attempt ON booking_outbox (next_attempt_at, id);
@@ -0,0 +1,3 @@
+ALTER TABLE booking_outbox ADD COLUMN claim VARCHAR(36);
+
+CREATE INDEX IF NOT EXISTS idx_booking_outbox_claim ON booking_outbox (claim);
@@ -0,0 +1 @@
+CREATE INDEX IF NOT EXISTS ix_items_request ON items (request_id);
@@ -0,0 +1,9 @@
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_bookings_booker_start ON bookings (booker_id, start_date);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_bookings_item_status_start ON bookings (item_id, status, start_date);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_items_owner ON items (owner_id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_comments_item ON comments (item_id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_requests_requester_created ON requests (requester_id, created);
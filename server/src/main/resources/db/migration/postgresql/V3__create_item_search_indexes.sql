@@ -0,0 +1,5 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_items_name_trgm ON items USING gin (lower(name) gin_trgm_ops) WHERE is_available;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_items_description_trgm ON items USING gin (lower(description) gin_trgm_ops) WHERE is_available;
@@ -0,0 +1,105 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class IdRegistryTest {
+
+    @Autowired
+    private IdRegistry idRegistry;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    @Test
+    void savedUserAndItemAreRegistered() {
+        User owner = userRepository.save(user());
+        Item item = itemRepository.save(item(owner));
+
+        assertTrue(idRegistry.containsUser(owner.getId()));
+        assertTrue(idRegistry.containsItem(item.getId()));
+    }
+
+    @Test
+    void unknownIdsAreRejected() {
+        assertFalse(idRegistry.containsUser(Long.MAX_VALUE));
+        assertFalse(idRegistry.containsItem(Long.MAX_VALUE));
+    }
+
+    @Test
+    void userInsertedOutsideJpaIsFoundInDatabase() {
+        long userId = ThreadLocalRandom.current().nextLong(1_000_000_000L, 2_000_000_000L);
+        jdbcTemplate.update("insert into users (id, name, email) values (?, ?, ?)",
+                userId, "Outside", UUID.randomUUID() + "@registry.com");
+
+        assertTrue(idRegistry.containsUser(userId));
+    }
+
+    @Test
+    void deletedUserTakesItsItemsAlong() {
+        User owner = userRepository.save(user());
+        Item item = itemRepository.save(item(owner));
+
+        userService.delete(owner.getId());
+
+        assertFalse(idRegistry.containsUser(owner.getId()));
+        assertFalse(idRegistry.containsItem(item.getId()));
+    }
+
+    @Test
+    void deletedRequesterTakesAnswersOfOtherOwnersAlong() {
+        User requester = userRepository.save(user());
+        User owner = userRepository.save(user());
+        ItemRequest request = itemRequestRepository.save(ItemRequest.builder()
+                .description("Нужна дрель")
+                .requester(requester)
+                .created(LocalDateTime.now())
+                .build());
+        Item answer = item(owner);
+        answer.setRequest(request);
+        answer = itemRepository.save(answer);
+
+        userService.delete(requester.getId());
+
+        assertFalse(itemRepository.existsById(answer.getId()));
+        assertFalse(idRegistry.containsItem(answer.getId()));
+        assertTrue(idRegistry.containsUser(owner.getId()));
+    }
+
+    private static User user() {
+        return User.builder().name("Owner").email(UUID.randomUUID() + "@registry.com").build();
+    }
+
+    private static Item item(User owner) {
+        return Item.builder().name("Дрель").description("Ударная").available(true).owner(owner).build();
+    }
+}
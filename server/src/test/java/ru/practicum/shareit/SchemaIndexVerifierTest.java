@@ -0,0 +1,20 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class SchemaIndexVerifierTest {
+
+    @Autowired
+    private SchemaIndexVerifier schemaIndexVerifier;
+
+    @Test
+    void schemaHasAllRequiredIndexes() {
+        assertTrue(schemaIndexVerifier.findMissingIndexes().isEmpty(),
+                "missing: " + schemaIndexVerifier.findMissingIndexes());
+    }
+}
@@ -0,0 +1,33 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UnknownIdCacheTest {
+
+    @Test
+    void remembersUnknownIdUntilItIsCreated() {
+        UnknownIdCache cache = new UnknownIdCache(100, Duration.ofMinutes(1));
+
+        cache.add(42L);
+        assertTrue(cache.contains(42L));
+        assertFalse(cache.contains(43L));
+
+        cache.remove(42L);
+        assertFalse(cache.contains(42L));
+    }
+
+    @Test
+    void forgetsUnknownIdAfterExpiration() throws InterruptedException {
+        UnknownIdCache cache = new UnknownIdCache(100, Duration.ofMillis(50));
+
+        cache.add(42L);
+        Thread.sleep(100);
+
+        assertFalse(cache.contains(42L));
+    }
+}
@@ -0,0 +1,124 @@
+package ru.practicum.shareit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Сравнивает пропускную способность сервера на платформенных и виртуальных потоках
+ * при числе одновременных запросов, заметно превышающем размер пула Tomcat.
+ * Запускается профилем load-test: mvn -P load-test test -pl server.
+ * Для показательных цифр стоит указать внешнюю БД через -Dspring.datasource.url=...
+ * Оба режима упираются в один пул соединений Hikari, поэтому тест только печатает цифры,
+ * а проверяет лишь то, что все запросы завершились успешно.
+ */
+@Slf4j
+@Tag("load")
+class VirtualThreadLoadTest {
+    private static final int REQUESTS = Integer.getInteger("load.requests", 4000);
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 1000);
+    private static final int PLATFORM_THREADS = 50;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(30))
+            .build();
+
+    @Test
+    void compareThroughputOfPlatformAndVirtualThreads() throws Exception {
+        double platform = measure(false);
+        double virtual = measure(true);
+
+        log.info("Платформенные потоки ({}): {} запросов/с, виртуальные потоки: {} запросов/с",
+                PLATFORM_THREADS, Math.round(platform), Math.round(virtual));
+    }
+
+    private double measure(boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ShareItServer.class)
+                .properties("server.port=0",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "server.tomcat.threads.max=" + PLATFORM_THREADS,
+                        "server.tomcat.max-connections=" + (CONCURRENCY * 2),
+                        "spring.datasource.url=" + System.getProperty("spring.datasource.url",
+                                "jdbc:h2:mem:load-" + virtualThreads))
+                .run()) {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            long bookerId = prepareBookings(baseUrl);
+
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/bookings?state=ALL&size=20"))
+                    .header("X-Sharer-User-Id", String.valueOf(bookerId))
+                    .build();
+            Semaphore inFlight = new Semaphore(CONCURRENCY);
+            List<Future<Integer>> responses = new ArrayList<>(REQUESTS);
+            long started = System.nanoTime();
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < REQUESTS; i++) {
+                    responses.add(executor.submit(() -> {
+                        inFlight.acquire();
+                        try {
+                            return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        } finally {
+                            inFlight.release();
+                        }
+                    }));
+                }
+            }
+            double seconds = (System.nanoTime() - started) / 1e9;
+            for (Future<Integer> response : responses) {
+                assertEquals(200, response.get());
+            }
+            return REQUESTS / seconds;
+        }
+    }
+
+    private long prepareBookings(String baseUrl) throws Exception {
+        long ownerId = id(post(baseUrl + "/users", null, "{\"name\":\"Owner\",\"email\":\"owner@load.com\"}"));
+        long bookerId = id(post(baseUrl + "/users", null, "{\"name\":\"Booker\",\"email\":\"booker@load.com\"}"));
+        long itemId = id(post(baseUrl + "/items", ownerId,
+                "{\"name\":\"Дрель\",\"description\":\"Ударная\",\"available\":true}"));
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        for (int i = 0; i < 50; i++) {
+            post(baseUrl + "/bookings", bookerId, "{\"itemId\":" + itemId
+                    + ",\"start\":\"" + start.plusHours(2L * i) + "\",\"end\":\"" + start.plusHours(2L * i + 1) + "\"}");
+        }
+        return bookerId;
+    }
+
+    private String post(String url, Long userId, String body) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (userId != null) {
+            request.header("X-Sharer-User-Id", String.valueOf(userId));
+        }
+        HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode(), response.body());
+        return response.body();
+    }
+
+    private static long id(String json) {
+        int start = json.indexOf("\"id\":") + 5;
+        int end = start;
+        while (Character.isDigit(json.charAt(end))) {
+            end++;
+        }
+        return Long.parseLong(json.substring(start, end));
+    }
+}
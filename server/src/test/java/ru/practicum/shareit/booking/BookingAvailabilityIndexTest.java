@@ -0,0 +1,86 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingAvailabilityIndexTest {
+
+    private BookingAvailabilityIndex index;
+    private LocalDateTime start;
+
+    @BeforeEach
+    void setUp() {
+        index = new BookingAvailabilityIndex(null);
+        start = LocalDateTime.now().plusDays(1);
+    }
+
+    @Test
+    void overlappingIntervalIsRejected() {
+        assertTrue(index.tryReserve(1L, 1L, start, start.plusDays(2)));
+
+        assertFalse(index.isFree(1L, start.plusDays(1), start.plusDays(3)));
+        assertFalse(index.isFree(1L, start.minusDays(1), start.plusHours(1)));
+        assertFalse(index.tryReserve(1L, 2L, start.plusHours(1), start.plusHours(2)));
+    }
+
+    @Test
+    void adjacentIntervalsAndOtherItemsAreFree() {
+        assertTrue(index.tryReserve(1L, 1L, start, start.plusDays(2)));
+
+        assertTrue(index.isFree(1L, start.plusDays(2), start.plusDays(3)));
+        assertTrue(index.isFree(1L, start.minusDays(1), start));
+        assertTrue(index.isFree(2L, start, start.plusDays(2)));
+    }
+
+    @Test
+    void longIntervalIsFoundBehindShortOnes() {
+        assertTrue(index.tryReserve(1L, 1L, start, start.plusDays(10)));
+        index.release(1L, 1L);
+        assertTrue(index.tryReserve(1L, 2L, start.plusDays(1), start.plusDays(2)));
+        assertTrue(index.tryReserve(1L, 3L, start.plusDays(3), start.plusDays(4)));
+
+        assertFalse(index.isFree(1L, start.plusDays(1).plusHours(1), start.plusDays(1).plusHours(2)));
+        assertTrue(index.isFree(1L, start.plusDays(2).plusHours(1), start.plusDays(2).plusHours(2)));
+    }
+
+    @Test
+    void releasedIntervalBecomesFree() {
+        assertTrue(index.tryReserve(1L, 1L, start, start.plusDays(2)));
+
+        index.release(1L, 1L);
+
+        assertTrue(index.isFree(1L, start, start.plusDays(2)));
+        assertTrue(index.tryReserve(1L, 2L, start, start.plusDays(2)));
+    }
+
+    @Test
+    void onlyOneOfParallelReservationsWins() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        List<Callable<Boolean>> attempts = new ArrayList<>();
+        for (long i = 0; i < 5000; i++) {
+            long bookingId = i;
+            LocalDateTime shift = start.plusMinutes(i % 60);
+            attempts.add(() -> index.tryReserve(1L, bookingId, shift, shift.plusHours(2)));
+        }
+
+        int reserved = 0;
+        for (Future<Boolean> result : executor.invokeAll(attempts)) {
+            if (result.get()) {
+                reserved++;
+            }
+        }
+        executor.shutdown();
+
+        assertEquals(1, reserved);
+    }
+}
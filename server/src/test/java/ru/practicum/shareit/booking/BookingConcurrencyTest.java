@@ -0,0 +1,247 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class BookingConcurrencyTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Test
+    void parallelBookingsOfSameItemDoNotOverlap() throws Exception {
+        User owner = userRepository.save(User.builder().name("Owner").email("concurrency-owner@test.com").build());
+        Item item = itemRepository.save(Item.builder()
+                .name("Drill")
+                .description("Concurrency drill")
+                .available(true)
+                .owner(owner)
+                .build());
+        List<User> bookers = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            bookers.add(userRepository.save(User.builder().name("Booker " + i).email("concurrency-booker" + i + "@test.com").build()));
+        }
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+
+        List<Callable<Integer>> requests = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            Long bookerId = bookers.get(i % bookers.size()).getId();
+            LocalDateTime shift = start.plusMinutes(i % 120);
+            String body = mapper.writeValueAsString(BookingCreateDto.builder()
+                    .itemId(item.getId())
+                    .start(shift)
+                    .end(shift.plusHours(3))
+                    .build());
+            requests.add(() -> mvc.perform(post("/bookings")
+                            .header("X-Sharer-User-Id", bookerId)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(body))
+                    .andReturn().getResponse().getStatus());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(64);
+        int created = 0;
+        for (Future<Integer> status : executor.invokeAll(requests)) {
+            if (status.get() == 200) {
+                created++;
+            }
+        }
+        executor.shutdown();
+
+        assertEquals(1, created);
+        assertEquals(1, bookingRepository.findAllByStatusInAndEndIsAfter(List.of(Status.WAITING, Status.APPROVED), LocalDateTime.now())
+                .stream()
+                .filter(booking -> booking.getItem().getId().equals(item.getId()))
+                .count());
+    }
+
+    @Test
+    void deletedBookerFreesIntervalForOtherUsers() throws Exception {
+        User owner = userRepository.save(User.builder().name("Owner").email("deleted-owner@test.com").build());
+        User leaving = userRepository.save(User.builder().name("Leaving").email("deleted-booker@test.com").build());
+        User next = userRepository.save(User.builder().name("Next").email("deleted-next@test.com").build());
+        Item item = itemRepository.save(Item.builder()
+                .name("Kayak")
+                .description("Deleted booker kayak")
+                .available(true)
+                .owner(owner)
+                .build());
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        String body = mapper.writeValueAsString(BookingCreateDto.builder()
+                .itemId(item.getId())
+                .start(start)
+                .end(start.plusDays(1))
+                .build());
+
+        mvc.perform(post("/bookings")
+                        .header("X-Sharer-User-Id", leaving.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk());
+        mvc.perform(delete("/users/{userId}", leaving.getId()))
+                .andExpect(status().isOk());
+
+        mvc.perform(post("/bookings")
+                        .header("X-Sharer-User-Id", next.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void parallelApprovalsOfOverlappingBookingsApproveOne() throws Exception {
+        User owner = userRepository.save(User.builder().name("Owner").email("approval-owner@test.com").build());
+        User booker = userRepository.save(User.builder().name("Booker").email("approval-booker@test.com").build());
+        Item item = itemRepository.save(Item.builder()
+                .name("Saw")
+                .description("Approval saw")
+                .available(true)
+                .owner(owner)
+                .build());
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        List<Callable<Integer>> requests = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            Booking booking = bookingRepository.save(Booking.builder()
+                    .item(item)
+                    .booker(booker)
+                    .start(start.plusMinutes(i))
+                    .end(start.plusHours(3))
+                    .status(Status.WAITING)
+                    .build());
+            requests.add(() -> mvc.perform(patch("/bookings/{bookingId}", booking.getId())
+                            .header("X-Sharer-User-Id", owner.getId())
+                            .param("approved", "true"))
+                    .andReturn().getResponse().getStatus());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        int approved = 0;
+        for (Future<Integer> status : executor.invokeAll(requests)) {
+            if (status.get() == 200) {
+                approved++;
+            }
+        }
+        executor.shutdown();
+
+        assertEquals(1, approved);
+        assertEquals(1, bookingRepository.findAllByItemIdAndStatusOrderByStartAsc(item.getId(), Status.APPROVED).size());
+    }
+
+    @Test
+    void parallelApprovalsOfDisjointBookingsAllSucceed() throws Exception {
+        User owner = userRepository.save(User.builder().name("Owner").email("disjoint-owner@test.com").build());
+        User booker = userRepository.save(User.builder().name("Booker").email("disjoint-booker@test.com").build());
+        Item item = itemRepository.save(Item.builder()
+                .name("Tent")
+                .description("Disjoint tent")
+                .available(true)
+                .owner(owner)
+                .build());
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        List<Callable<Integer>> requests = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            Booking booking = bookingRepository.save(Booking.builder()
+                    .item(item)
+                    .booker(booker)
+                    .start(start.plusDays(i))
+                    .end(start.plusDays(i).plusHours(12))
+                    .status(Status.WAITING)
+                    .build());
+            requests.add(() -> mvc.perform(patch("/bookings/{bookingId}", booking.getId())
+                            .header("X-Sharer-User-Id", owner.getId())
+                            .param("approved", "true"))
+                    .andReturn().getResponse().getStatus());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        List<Integer> statuses = new ArrayList<>();
+        for (Future<Integer> status : executor.invokeAll(requests)) {
+            statuses.add(status.get());
+        }
+        executor.shutdown();
+
+        assertEquals(Collections.nCopies(16, 200), statuses);
+        assertEquals(16, bookingRepository.findAllByItemIdAndStatusOrderByStartAsc(item.getId(), Status.APPROVED).size());
+        assertEquals(item.getVersion(), itemRepository.findById(item.getId()).orElseThrow().getVersion());
+    }
+
+    @Test
+    void parallelApproveAndRejectOfSameBookingDecideOnce() throws Exception {
+        User owner = userRepository.save(User.builder().name("Owner").email("decision-owner@test.com").build());
+        User booker = userRepository.save(User.builder().name("Booker").email("decision-booker@test.com").build());
+        Item item = itemRepository.save(Item.builder()
+                .name("Ladder")
+                .description("Decision ladder")
+                .available(true)
+                .owner(owner)
+                .build());
+        Booking booking = bookingRepository.save(Booking.builder()
+                .item(item)
+                .booker(booker)
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .status(Status.WAITING)
+                .build());
+        List<Callable<Integer>> requests = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            String approved = String.valueOf(i % 2 == 0);
+            requests.add(() -> mvc.perform(patch("/bookings/{bookingId}", booking.getId())
+                            .header("X-Sharer-User-Id", owner.getId())
+                            .param("approved", approved))
+                    .andReturn().getResponse().getStatus());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        int decided = 0;
+        for (Future<Integer> status : executor.invokeAll(requests)) {
+            if (status.get() == 200) {
+                decided++;
+            }
+        }
+        executor.shutdown();
+
+        assertEquals(1, decided);
+        assertEquals(1, bookingRepository.findById(booking.getId()).orElseThrow().getVersion());
+    }
+}
@@ -19,6 +19,7 @@ import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Collections;
+import java.util.List;
 
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.*;
@@ -76,9 +77,24 @@ class BookingControllerTest {
         verify(bookingService, times(1)).addBooking(any(), anyLong());
     }
 
+    @Test
+    void addBookings() throws Exception {
+        when(bookingService.addBookings(any(), anyLong())).thenReturn(List.of(bookingRequestDto));
+
+        mvc.perform(post("/bookings/batch")
+                        .header("X-Sharer-User-Id", 1L)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(List.of(bookingCreateDto))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id", is(bookingRequestDto.getId()), Long.class));
+        verify(bookingService, times(1)).addBookings(any(), anyLong());
+    }
+
     @Test
     void getAllBookingsByUser() throws Exception {
-        when(bookingService.getAllBookingsByUser(anyLong(), anyString())).thenReturn(Collections.emptyList());
+        when(bookingService.getAllBookingsByUser(anyLong(), anyString(), anyInt(), anyInt(), any())).thenReturn(Collections.emptyList());
 
         mvc.perform(get("/bookings")
                         .header("X-Sharer-User-Id", 1L)
@@ -87,12 +103,25 @@ class BookingControllerTest {
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(content().json("[]"));
-        verify(bookingService, times(1)).getAllBookingsByUser(anyLong(), anyString());
+        verify(bookingService, times(1)).getAllBookingsByUser(anyLong(), anyString(), anyInt(), anyInt(), any());
+    }
+
+    @Test
+    void getAllBookingsByUserReturnsNextCursorForFullPage() throws Exception {
+        when(bookingService.getAllBookingsByUser(anyLong(), anyString(), anyInt(), anyInt(), any())).thenReturn(List.of(bookingRequestDto));
+
+        mvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("size", "1")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(BookingCursor.HEADER,
+                        new BookingCursor(bookingRequestDto.getStart(), bookingRequestDto.getId()).encode()));
     }
 
     @Test
     void getAllBookingsAllItemsByOwner() throws Exception {
-        when(bookingService.getAllBookingsAllItemsByOwner(anyLong(), anyString())).thenReturn(Collections.emptyList());
+        when(bookingService.getAllBookingsAllItemsByOwner(anyLong(), anyString(), anyInt(), anyInt(), any())).thenReturn(Collections.emptyList());
 
         mvc.perform(get("/bookings/owner")
                         .header("X-Sharer-User-Id", 1L)
@@ -101,7 +130,7 @@ class BookingControllerTest {
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(content().json("[]"));
-        verify(bookingService, times(1)).getAllBookingsAllItemsByOwner(anyLong(), anyString());
+        verify(bookingService, times(1)).getAllBookingsAllItemsByOwner(anyLong(), anyString(), anyInt(), anyInt(), any());
     }
 
     @Test
@@ -138,7 +167,7 @@ class BookingControllerTest {
 
     @Test
     void getAllBookingsAllItemsByOwnerInvalidState() throws Exception {
-        when(bookingService.getAllBookingsAllItemsByOwner(anyLong(), eq("INVALID"))).thenThrow(new InvalidStateException("Unknown state: INVALID"));
+        when(bookingService.getAllBookingsAllItemsByOwner(anyLong(), eq("INVALID"), anyInt(), anyInt(), any())).thenThrow(new InvalidStateException("Unknown state: INVALID"));
 
         mvc.perform(get("/bookings/owner")
                         .header("X-Sharer-User-Id", 1L)
@@ -148,7 +177,7 @@ class BookingControllerTest {
 
     @Test
     void getAllBookingsByUserNotFound() throws Exception {
-        when(bookingService.getAllBookingsByUser(anyLong(), anyString())).thenThrow(new NotFoundException("Пользователя нет с таким id = " + 1L));
+        when(bookingService.getAllBookingsByUser(anyLong(), anyString(), anyInt(), anyInt(), any())).thenThrow(new NotFoundException("Пользователя нет с таким id = " + 1L));
 
         mvc.perform(get("/bookings")
                         .header("X-Sharer-User-Id", 1L)
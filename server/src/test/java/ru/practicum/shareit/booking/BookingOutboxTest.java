@@ -0,0 +1,210 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.EventListener;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingEvent;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingEventType;
+import ru.practicum.shareit.exception.AvailableItemException;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+/**
+ * Отдельная база, чтобы события не разбирали диспетчеры других тестовых контекстов.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:outbox",
+        "shareit.outbox.enabled=true",
+        "shareit.outbox.poll-interval=100ms",
+        "shareit.outbox.retry-backoff=50ms"
+})
+class BookingOutboxTest {
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingOutboxRepository outboxRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private BookingOutbox bookingOutbox;
+
+    @Autowired
+    private RecordingListener listener;
+
+    @Test
+    void lifecycleEventsAreDeliveredAfterCommit() {
+        User owner = userRepository.save(user("Owner"));
+        User booker = userRepository.save(user("Booker"));
+        Item item = itemRepository.save(item(owner));
+
+        BookingRequestDto booking = bookingService.addBooking(booking(item), booker.getId());
+        bookingService.approveOrRejectBooking(owner.getId(), booking.getId(), true);
+
+        awaitEvents(booking.getId(), 2);
+        assertEquals(List.of(BookingEventType.CREATED, BookingEventType.APPROVED), listener.types(booking.getId()));
+        assertTrue(outboxRepository.findAll().stream().noneMatch(entry -> entry.getBookingId().equals(booking.getId())));
+    }
+
+    @Test
+    void failedDeliveryIsRetried() {
+        User owner = userRepository.save(user("Owner"));
+        User booker = userRepository.save(user("Booker"));
+        Item item = itemRepository.save(item(owner));
+        BookingRequestDto booking = bookingService.addBooking(booking(item), booker.getId());
+        awaitEvents(booking.getId(), 1);
+
+        listener.failOnce.add(booking.getId());
+        bookingService.approveOrRejectBooking(owner.getId(), booking.getId(), false);
+
+        awaitEvents(booking.getId(), 2);
+        assertEquals(List.of(BookingEventType.CREATED, BookingEventType.REJECTED), listener.types(booking.getId()));
+    }
+
+    @Test
+    void rolledBackBookingPublishesNothing() {
+        User owner = userRepository.save(user("Owner"));
+        User booker = userRepository.save(user("Booker"));
+        Item item = itemRepository.save(item(owner));
+
+        assertThrows(AvailableItemException.class, () ->
+                bookingService.addBookings(List.of(booking(item), booking(item)), booker.getId()));
+
+        assertTrue(outboxRepository.findAll().stream().noneMatch(entry -> entry.getItemId().equals(item.getId())));
+    }
+
+    @Test
+    void approvedBookingIsVisibleOnItemRightAfterApproval() {
+        User owner = userRepository.save(user("Owner"));
+        User booker = userRepository.save(user("Booker"));
+        Item item = itemRepository.save(item(owner));
+        BookingRequestDto booking = bookingService.addBooking(booking(item), booker.getId());
+        assertNull(itemService.getById(owner.getId(), item.getId()).getNextBooking());
+
+        bookingService.approveOrRejectBooking(owner.getId(), booking.getId(), true);
+
+        assertEquals(booking.getId(), itemService.getById(owner.getId(), item.getId()).getNextBooking().getId());
+    }
+
+    @Test
+    void concurrentDispatchersDeliverEachEventOnce() throws Exception {
+        User owner = userRepository.save(user("Owner"));
+        User booker = userRepository.save(user("Booker"));
+        List<Item> items = IntStream.range(0, 50).mapToObj(i -> itemRepository.save(item(owner))).toList();
+
+        List<BookingRequestDto> bookings = bookingService.addBookings(items.stream().map(BookingOutboxTest::booking)
+                .toList(), booker.getId());
+        try (ExecutorService executor = Executors.newFixedThreadPool(4)) {
+            for (int i = 0; i < 4; i++) {
+                executor.submit(() -> {
+                    while (bookingOutbox.dispatch() > 0) {
+                        Thread.yield();
+                    }
+                });
+            }
+        }
+
+        for (BookingRequestDto booking : bookings) {
+            awaitEvents(booking.getId(), 1);
+            assertEquals(List.of(BookingEventType.CREATED), listener.types(booking.getId()));
+        }
+    }
+
+    @Test
+    void disabledOutboxWritesNothing() {
+        BookingOutboxRepository repository = mock(BookingOutboxRepository.class);
+        BookingOutbox disabled = new BookingOutbox(repository, event -> {
+        }, null, false, 100, 10, Duration.ofSeconds(1), Duration.ofSeconds(1), Duration.ofMinutes(1));
+        Booking booking = Booking.builder().id(1L).item(Item.builder().id(1L).build()).build();
+
+        disabled.append(booking, BookingEventType.CREATED);
+        disabled.start();
+
+        verifyNoInteractions(repository);
+    }
+
+    private void awaitEvents(Long bookingId, int count) {
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            while (listener.types(bookingId).size() < count) {
+                Thread.sleep(20);
+            }
+        });
+    }
+
+    private static User user(String name) {
+        return User.builder().name(name).email(UUID.randomUUID() + "@outbox.com").build();
+    }
+
+    private static Item item(User owner) {
+        return Item.builder().name("Drill").description("Outbox drill").available(true).owner(owner).build();
+    }
+
+    private static BookingCreateDto booking(Item item) {
+        return BookingCreateDto.builder()
+                .itemId(item.getId())
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .build();
+    }
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        RecordingListener recordingListener() {
+            return new RecordingListener();
+        }
+    }
+
+    static class RecordingListener {
+        private final List<BookingEvent> events = new CopyOnWriteArrayList<>();
+        private final Set<Long> failOnce = ConcurrentHashMap.newKeySet();
+
+        @EventListener
+        public void on(BookingEvent event) {
+            if (event.type() != BookingEventType.CREATED && failOnce.remove(event.bookingId())) {
+                throw new IllegalStateException("Слушатель недоступен");
+            }
+            events.add(event);
+        }
+
+        List<BookingEventType> types(Long bookingId) {
+            return events.stream()
+                    .filter(event -> event.bookingId().equals(bookingId))
+                    .map(BookingEvent::type)
+                    .toList();
+        }
+    }
+}
@@ -5,14 +5,20 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.IdRegistry;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingEventType;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.exception.AvailableItemException;
 import ru.practicum.shareit.exception.InvalidStateException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.ItemDetailsCache;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.UserRepository;
@@ -21,7 +27,9 @@ import ru.practicum.shareit.user.model.User;
 import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -43,6 +51,21 @@ class BookingServiceImplTest {
     @Mock
     private ItemRepository itemRepository;
 
+    @Mock
+    private BookingAvailabilityIndex availabilityIndex;
+
+    @Mock
+    private ItemDetailsCache itemDetailsCache;
+
+    @Mock
+    private BookingOutbox bookingOutbox;
+
+    @Mock
+    private IdRegistry idRegistry;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
     private User user;
     private User owner;
     private Item item;
@@ -53,6 +76,10 @@ class BookingServiceImplTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        when(idRegistry.containsUser(anyLong())).thenReturn(true);
+        when(idRegistry.containsItem(anyLong())).thenReturn(true);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
 
         user = User.builder()
                 .id(1L)
@@ -97,6 +124,8 @@ class BookingServiceImplTest {
         when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
         when(itemRepository.findById(bookingCreateDto.getItemId())).thenReturn(Optional.of(item));
         when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
+        when(availabilityIndex.isFree(anyLong(), any(), any())).thenReturn(true);
+        when(availabilityIndex.tryReserve(anyLong(), anyLong(), any(), any())).thenReturn(true);
 
         BookingRequestDto result = bookingService.addBooking(bookingCreateDto, user.getId());
         assertNotNull(result);
@@ -105,6 +134,7 @@ class BookingServiceImplTest {
         assertEquals(result.getItem(), bookingRequestDto.getItem());
         assertEquals(result.getStatus(), bookingRequestDto.getStatus());
         verify(bookingRepository, times(1)).save(any());
+        verify(bookingOutbox).append(booking, BookingEventType.CREATED);
     }
 
     @Test
@@ -165,10 +195,95 @@ class BookingServiceImplTest {
         assertEquals("Вещь с id " + bookingCreateDto.getItemId() + " не доступна", exception.getMessage());
     }
 
+    @Test
+    void addBookingOverlappingIntervalException() {
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(itemRepository.findById(bookingCreateDto.getItemId())).thenReturn(Optional.of(item));
+        when(availabilityIndex.isFree(anyLong(), any(), any())).thenReturn(false);
+
+        AvailableItemException exception = assertThrows(AvailableItemException.class, () -> bookingService.addBooking(bookingCreateDto, user.getId()));
+        assertEquals("Вещь с id " + bookingCreateDto.getItemId() + " уже забронирована на эти даты", exception.getMessage());
+        verify(bookingRepository, never()).save(any());
+        verifyNoInteractions(bookingOutbox);
+    }
+
+    @Test
+    void addBookingsLoadsItemsOnce() {
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(itemRepository.findAllById(Set.of(item.getId()))).thenReturn(List.of(item));
+        when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
+        when(availabilityIndex.isFree(anyLong(), any(), any())).thenReturn(true);
+        when(availabilityIndex.tryReserve(anyLong(), anyLong(), any(), any())).thenReturn(true);
+        BookingCreateDto later = bookingCreateDto.toBuilder()
+                .start(bookingCreateDto.getEnd().plusDays(1))
+                .end(bookingCreateDto.getEnd().plusDays(2))
+                .build();
+
+        List<BookingRequestDto> result = bookingService.addBookings(List.of(bookingCreateDto, later), user.getId());
+
+        assertEquals(2, result.size());
+        verify(itemRepository, times(1)).findAllById(any());
+        verify(itemRepository, never()).findById(anyLong());
+        verify(bookingRepository, times(2)).save(any());
+    }
+
+    @Test
+    void addBookingsRejectsWholeBatchWithInvalidDates() {
+        BookingCreateDto invalidDto = bookingCreateDto.toBuilder().end(bookingCreateDto.getStart()).build();
+
+        assertThrows(ValidationException.class,
+                () -> bookingService.addBookings(List.of(bookingCreateDto, invalidDto), user.getId()));
+        verify(bookingRepository, never()).save(any());
+    }
+
+    @Test
+    void addBookingsRejectsOversizedBatch() {
+        ValidationException exception = assertThrows(ValidationException.class,
+                () -> bookingService.addBookings(Collections.nCopies(1001, bookingCreateDto), user.getId()));
+
+        assertEquals("Размер пакета должен быть от 1 до 1000", exception.getMessage());
+        verify(bookingRepository, never()).save(any());
+    }
+
+    @Test
+    void addBookingsWithUnknownItemException() {
+        when(idRegistry.containsItem(99L)).thenReturn(false);
+        BookingCreateDto unknownItem = bookingCreateDto.toBuilder().itemId(99L).build();
+
+        NotFoundException exception = assertThrows(NotFoundException.class,
+                () -> bookingService.addBookings(List.of(bookingCreateDto, unknownItem), user.getId()));
+        assertEquals("Нет вещи с таким ID = 99", exception.getMessage());
+        verify(bookingRepository, never()).save(any());
+    }
+
+    @Test
+    void addBookingLostReservationRaceException() {
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(itemRepository.findById(bookingCreateDto.getItemId())).thenReturn(Optional.of(item));
+        when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
+        when(availabilityIndex.isFree(anyLong(), any(), any())).thenReturn(true);
+        when(availabilityIndex.tryReserve(anyLong(), anyLong(), any(), any())).thenReturn(false);
+
+        assertThrows(AvailableItemException.class, () -> bookingService.addBooking(bookingCreateDto, user.getId()));
+    }
+
+    @Test
+    void rejectBookingReleasesInterval() {
+        when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
+        when(idRegistry.containsUser(owner.getId())).thenReturn(true);
+        when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
+
+        BookingRequestDto result = bookingService.approveOrRejectBooking(owner.getId(), booking.getId(), false);
+
+        assertEquals(Status.REJECTED, result.getStatus());
+        verify(availabilityIndex).releaseAfterCommit(item.getId(), booking.getId());
+        verify(bookingOutbox).append(booking, BookingEventType.REJECTED);
+    }
+
     @Test
     void approveOrRejectBooking_Success() {
         when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
-        when(userRepository.findById(owner.getId())).thenReturn(Optional.of(owner));
+        when(idRegistry.containsUser(owner.getId())).thenReturn(true);
         when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
 
         BookingRequestDto result = bookingService.approveOrRejectBooking(owner.getId(), booking.getId(), true);
@@ -179,11 +294,13 @@ class BookingServiceImplTest {
         assertEquals(result.getStatus(), Status.APPROVED);
         assertEquals(result.getBooker(), bookingRequestDto.getBooker());
         verify(bookingRepository, times(1)).save(any());
+        verify(itemDetailsCache).evictBookings(item.getId());
+        verify(bookingOutbox).append(booking, BookingEventType.APPROVED);
     }
 
     @Test
     void approveOrRejectBookingBookingNotFoundException() {
-        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(idRegistry.containsUser(user.getId())).thenReturn(true);
         when(bookingRepository.findById(booking.getId())).thenReturn(Optional.empty());
 
         NotFoundException exception = assertThrows(NotFoundException.class, () -> bookingService.approveOrRejectBooking(user.getId(), booking.getId(), true));
@@ -193,7 +310,7 @@ class BookingServiceImplTest {
     @Test
     void approveOrRejectBookingUserNotFoundException() {
         when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
-        when(userRepository.findById(user.getId())).thenReturn(Optional.empty());
+        when(idRegistry.containsUser(user.getId())).thenReturn(false);
 
         ValidationException exception = assertThrows(ValidationException.class, () -> bookingService.approveOrRejectBooking(user.getId(), booking.getId(), true));
         assertEquals("Нет юзера с таким ID = " + user.getId(), exception.getMessage());
@@ -202,7 +319,7 @@ class BookingServiceImplTest {
     @Test
     void getByIdSuccess() {
         when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
-        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(idRegistry.containsUser(user.getId())).thenReturn(true);
 
         BookingRequestDto result = bookingService.getById(booking.getId(), user.getId());
 
@@ -221,44 +338,70 @@ class BookingServiceImplTest {
     @Test
     void getAllBookingsByUserSuccess() {
         String state = "ALL";
-        Collection<Booking> bookings = Collections.singletonList(booking);
+        List<Booking> bookings = Collections.singletonList(booking);
 
-        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
-        when(bookingRepository.findAllByBookerIdOrderByStartDesc(user.getId())).thenReturn(bookings);
+        when(idRegistry.containsUser(user.getId())).thenReturn(true);
+        when(bookingRepository.findPage(any(), eq(0), eq(10))).thenReturn(bookings);
 
-        Collection<BookingRequestDto> result = bookingService.getAllBookingsByUser(user.getId(), state);
+        Collection<BookingRequestDto> result = bookingService.getAllBookingsByUser(user.getId(), state, 0, 10, null);
 
         assertNotNull(result);
-        verify(bookingRepository).findAllByBookerIdOrderByStartDesc(user.getId());
+        verify(bookingRepository).findPage(any(), eq(0), eq(10));
+    }
+
+    @Test
+    void getAllBookingsByUserContinuesFromCursor() {
+        String cursor = new BookingCursor(booking.getStart(), booking.getId()).encode();
+        when(idRegistry.containsUser(user.getId())).thenReturn(true);
+
+        bookingService.getAllBookingsByUser(user.getId(), "ALL", 20, 10, cursor);
+
+        verify(bookingRepository).findPage(any(), eq(0), eq(10));
+    }
+
+    @Test
+    void getAllBookingsByUserStartsFromPageOfOffset() {
+        when(idRegistry.containsUser(user.getId())).thenReturn(true);
+
+        bookingService.getAllBookingsByUser(user.getId(), "ALL", 25, 10, null);
+
+        verify(bookingRepository).findPage(any(), eq(20), eq(10));
+    }
+
+    @Test
+    void getAllBookingsByUserInvalidCursorException() {
+        when(idRegistry.containsUser(user.getId())).thenReturn(true);
+
+        assertThrows(ValidationException.class, () -> bookingService.getAllBookingsByUser(user.getId(), "ALL", 0, 10, "not-a-cursor"));
     }
 
     @Test
     void getAllBookingsByUserInvalidStateException() {
         String state = "INVALID";
 
-        InvalidStateException exception = assertThrows(InvalidStateException.class, () -> bookingService.getAllBookingsByUser(user.getId(), state));
+        InvalidStateException exception = assertThrows(InvalidStateException.class, () -> bookingService.getAllBookingsByUser(user.getId(), state, 0, 10, null));
         assertEquals("Unknown state: " + state, exception.getMessage());
     }
 
     @Test
     void getAllBookingsAllItemsByOwnerSuccess() {
         String state = "ALL";
-        Collection<Booking> bookings = Collections.singletonList(booking);
+        List<Booking> bookings = Collections.singletonList(booking);
 
-        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
-        when(bookingRepository.findAllByItemOwnerIdOrderByStartDesc(user.getId())).thenReturn(bookings);
+        when(idRegistry.containsUser(user.getId())).thenReturn(true);
+        when(bookingRepository.findPage(any(), eq(0), eq(10))).thenReturn(bookings);
 
-        Collection<BookingRequestDto> result = bookingService.getAllBookingsAllItemsByOwner(user.getId(), state);
+        Collection<BookingRequestDto> result = bookingService.getAllBookingsAllItemsByOwner(user.getId(), state, 0, 10, null);
 
         assertNotNull(result);
-        verify(bookingRepository).findAllByItemOwnerIdOrderByStartDesc(user.getId());
+        verify(bookingRepository).findPage(any(), eq(0), eq(10));
     }
 
     @Test
     void getAllBookingsAllItemsByOwnerInvalidStateException() {
         String state = "INVALID";
 
-        InvalidStateException exception = assertThrows(InvalidStateException.class, () -> bookingService.getAllBookingsAllItemsByOwner(user.getId(), state));
+        InvalidStateException exception = assertThrows(InvalidStateException.class, () -> bookingService.getAllBookingsAllItemsByOwner(user.getId(), state, 0, 10, null));
         assertEquals("Unknown state: " + state, exception.getMessage());
     }
 
@@ -283,7 +426,7 @@ class BookingServiceImplTest {
                 .end(LocalDateTime.now().plusDays(2))
                 .status(Status.APPROVED)
                 .build();
-        when(userRepository.findById(owner.getId())).thenReturn(Optional.of(owner));
+        when(idRegistry.containsUser(owner.getId())).thenReturn(true);
         when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
 
         AvailableItemException exception = assertThrows(AvailableItemException.class, () ->
@@ -292,161 +435,201 @@ class BookingServiceImplTest {
         assertEquals("Нельзя апрувнуть или отклонить, статус не Waiting", exception.getMessage());
     }
 
+    @Test
+    void approveOverlappingApprovedBookingException() {
+        when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
+        when(bookingRepository.existsByItemIdAndStatusAndIdNotAndStartBeforeAndEndAfter(item.getId(), Status.APPROVED,
+                booking.getId(), booking.getEnd(), booking.getStart())).thenReturn(true);
+
+        AvailableItemException exception = assertThrows(AvailableItemException.class, () ->
+                bookingService.approveOrRejectBooking(owner.getId(), booking.getId(), true)
+        );
+        assertEquals("Вещь с id " + item.getId() + " уже забронирована на эти даты", exception.getMessage());
+        verify(itemRepository).findByIdForUpdate(item.getId());
+        verify(bookingRepository, never()).save(any());
+    }
+
+    @Test
+    void approveRetriesAfterVersionConflict() {
+        when(bookingRepository.findById(booking.getId())).thenAnswer(invocation -> Optional.of(booking.toBuilder().build()));
+        when(bookingRepository.save(any(Booking.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Booking.class, booking.getId()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        BookingRequestDto result = bookingService.approveOrRejectBooking(owner.getId(), booking.getId(), true);
+
+        assertEquals(Status.APPROVED, result.getStatus());
+        verify(transactionTemplate, times(2)).execute(any());
+        verify(bookingRepository, times(2)).save(any());
+    }
+
+    @Test
+    void approveGivesUpAfterBoundedRetries() {
+        when(bookingRepository.findById(booking.getId())).thenAnswer(invocation -> Optional.of(booking.toBuilder().build()));
+        when(bookingRepository.save(any(Booking.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Booking.class, booking.getId()));
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () ->
+                bookingService.approveOrRejectBooking(owner.getId(), booking.getId(), true));
+        verify(transactionTemplate, times(3)).execute(any());
+        verifyNoInteractions(bookingOutbox);
+    }
+
     @Test
     void getAllBookingsAllItemsByOwnerUnknownStateException() {
-        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(idRegistry.containsUser(user.getId())).thenReturn(true);
 
         InvalidStateException exception = assertThrows(InvalidStateException.class, () ->
-                bookingService.getAllBookingsAllItemsByOwner(user.getId(), "UNKNOWN")
+                bookingService.getAllBookingsAllItemsByOwner(user.getId(), "UNKNOWN", 0, 10, null)
         );
         assertEquals("Unknown state: UNKNOWN", exception.getMessage());
     }
 
     @Test
     void getAllBookingsByUserAllState() {
-        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
-        when(bookingRepository.findAllByBookerIdOrderByStartDesc(user.getId())).thenReturn(Collections.singletonList(booking));
+        when(idRegistry.containsUser(user.getId())).thenReturn(true);
+        when(bookingRepository.findPage(any(), eq(0), eq(10))).thenReturn(Collections.singletonList(booking));
 
-        Collection<BookingRequestDto> result = bookingService.getAllBookingsByUser(user.getId(), "ALL");
+        Collection<BookingRequestDto> result = bookingService.getAllBookingsByUser(user.getId(), "ALL", 0, 10, null);
 
         assertEquals(1, result.size());
-        verify(bookingRepository).findAllByBookerIdOrderByStartDesc(user.getId());
+        verify(bookingRepository).findPage(any(), eq(0), eq(10));
     }
 
     @Test
     void getAllBookingsByUserWaitingState() {
-        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
-        when(bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(user.getId(), Status.WAITING)).thenReturn(Collections.singletonList(booking));
+        when(idRegistry.containsUser(user.getId())).thenReturn(true);
+        when(bookingRepository.findPage(any(), eq(0), eq(10))).thenReturn(Collections.singletonList(booking));
 
-        Collection<BookingRequestDto> result = bookingService.getAllBookingsByUser(user.getId(), "WAITING");
+        Collection<BookingRequestDto> result = bookingService.getAllBookingsByUser(user.getId(), "WAITING", 0, 10, null);
 
         assertEquals(1, result.size());
-        verify(bookingRepository).findAllByBookerIdAndStatusOrderByStartDesc(user.getId(), Status.WAITING);
+        verify(bookingRepository).findPage(any(), eq(0), eq(10));
     }
 
     @Test
     void getAllBookingsByUserRejectedState() {
-        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
-        when(bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(user.getId(), Status.REJECTED)).thenReturn(Collections.singletonList(booking));
+        when(idRegistry.containsUser(user.getId())).thenReturn(true);
+        when(bookingRepository.findPage(any(), eq(0), eq(10))).thenReturn(Collections.singletonList(booking));
 
-        Collection<BookingRequestDto> result = bookingService.getAllBookingsByUser(user.getId(), "REJECTED");
+        Collection<BookingRequestDto> result = bookingService.getAllBookingsByUser(user.getId(), "REJECTED", 0, 10, null);
 
         assertEquals(1, result.size());
-        verify(bookingRepository).findAllByBookerIdAndStatusOrderByStartDesc(user.getId(), Status.REJECTED);
+        verify(bookingRepository).findPage(any(), eq(0), eq(10));
     }
 
     @Test
     void getAllBookingsByUserInvalidState() {
-        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(idRegistry.containsUser(user.getId())).thenReturn(true);
 
-        InvalidStateException exception = assertThrows(InvalidStateException.class, () -> bookingService.getAllBookingsByUser(user.getId(), "INVALID"));
+        InvalidStateException exception = assertThrows(InvalidStateException.class, () -> bookingService.getAllBookingsByUser(user.getId(), "INVALID", 0, 10, null));
 
         assertEquals("Unknown state: INVALID", exception.getMessage());
     }
 
     @Test
     void getAllBookingsByUserNotFoundException() {
-        when(userRepository.findById(user.getId())).thenReturn(Optional.empty());
+        when(idRegistry.containsUser(user.getId())).thenReturn(false);
 
-        NotFoundException exception = assertThrows(NotFoundException.class, () -> bookingService.getAllBookingsByUser(user.getId(), "ALL"));
+        NotFoundException exception = assertThrows(NotFoundException.class, () -> bookingService.getAllBookingsByUser(user.getId(), "ALL", 0, 10, null));
 
         assertEquals("Пользователя нет с таким id = " + user.getId(), exception.getMessage());
     }
 
     @Test
     void getAllBookingsByUserUnknownStateException() {
-        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(idRegistry.containsUser(user.getId())).thenReturn(true);
 
         InvalidStateException exception = assertThrows(InvalidStateException.class, () ->
-                bookingService.getAllBookingsByUser(user.getId(), "UNKNOWN")
+                bookingService.getAllBookingsByUser(user.getId(), "UNKNOWN", 0, 10, null)
         );
         assertEquals("Unknown state: UNKNOWN", exception.getMessage());
     }
 
     @Test
     void getAllBookingsAllItemsByOwnerAllState() {
-        when(userRepository.findById(owner.getId())).thenReturn(Optional.of(owner));
-        when(bookingRepository.findAllByItemOwnerIdOrderByStartDesc(owner.getId())).thenReturn(Collections.singletonList(booking));
+        when(idRegistry.containsUser(owner.getId())).thenReturn(true);
+        when(bookingRepository.findPage(any(), eq(0), eq(10))).thenReturn(Collections.singletonList(booking));
 
-        Collection<BookingRequestDto> result = bookingService.getAllBookingsAllItemsByOwner(owner.getId(), "ALL");
+        Collection<BookingRequestDto> result = bookingService.getAllBookingsAllItemsByOwner(owner.getId(), "ALL", 0, 10, null);
 
         assertEquals(1, result.size());
-        verify(bookingRepository).findAllByItemOwnerIdOrderByStartDesc(owner.getId());
+        verify(bookingRepository).findPage(any(), eq(0), eq(10));
     }
 
     @Test
     void getAllBookingsAllItemsByOwnerWaitingState() {
-        when(userRepository.findById(owner.getId())).thenReturn(Optional.of(owner));
-        when(bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(owner.getId(), Status.WAITING)).thenReturn(Collections.singletonList(booking));
+        when(idRegistry.containsUser(owner.getId())).thenReturn(true);
+        when(bookingRepository.findPage(any(), eq(0), eq(10))).thenReturn(Collections.singletonList(booking));
 
-        Collection<BookingRequestDto> result = bookingService.getAllBookingsAllItemsByOwner(owner.getId(), "WAITING");
+        Collection<BookingRequestDto> result = bookingService.getAllBookingsAllItemsByOwner(owner.getId(), "WAITING", 0, 10, null);
 
         assertEquals(1, result.size());
-        verify(bookingRepository).findAllByItemOwnerIdAndStatusOrderByStartDesc(owner.getId(), Status.WAITING);
+        verify(bookingRepository).findPage(any(), eq(0), eq(10));
     }
 
     @Test
     void getAllBookingsAllItemsByOwnerRejectedState() {
-        when(userRepository.findById(owner.getId())).thenReturn(Optional.of(owner));
-        when(bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(owner.getId(), Status.REJECTED)).thenReturn(Collections.singletonList(booking));
+        when(idRegistry.containsUser(owner.getId())).thenReturn(true);
+        when(bookingRepository.findPage(any(), eq(0), eq(10))).thenReturn(Collections.singletonList(booking));
 
-        Collection<BookingRequestDto> result = bookingService.getAllBookingsAllItemsByOwner(owner.getId(), "REJECTED");
+        Collection<BookingRequestDto> result = bookingService.getAllBookingsAllItemsByOwner(owner.getId(), "REJECTED", 0, 10, null);
 
         assertEquals(1, result.size());
-        verify(bookingRepository).findAllByItemOwnerIdAndStatusOrderByStartDesc(owner.getId(), Status.REJECTED);
+        verify(bookingRepository).findPage(any(), eq(0), eq(10));
     }
 
     @Test
     void getAllBookingsAllItemsByOwnerInvalidState() {
-        when(userRepository.findById(owner.getId())).thenReturn(Optional.of(owner));
+        when(idRegistry.containsUser(owner.getId())).thenReturn(true);
 
-        InvalidStateException exception = assertThrows(InvalidStateException.class, () -> bookingService.getAllBookingsAllItemsByOwner(owner.getId(), "INVALID"));
+        InvalidStateException exception = assertThrows(InvalidStateException.class, () -> bookingService.getAllBookingsAllItemsByOwner(owner.getId(), "INVALID", 0, 10, null));
 
         assertEquals("Unknown state: INVALID", exception.getMessage());
     }
 
     @Test
     void getAllBookingsAllItemsByOwnerNotFoundException() {
-        when(userRepository.findById(owner.getId())).thenReturn(Optional.empty());
+        when(idRegistry.containsUser(owner.getId())).thenReturn(false);
 
-        NotFoundException exception = assertThrows(NotFoundException.class, () -> bookingService.getAllBookingsAllItemsByOwner(owner.getId(), "ALL"));
+        NotFoundException exception = assertThrows(NotFoundException.class, () -> bookingService.getAllBookingsAllItemsByOwner(owner.getId(), "ALL", 0, 10, null));
 
         assertEquals("Пользователя нет с таким id = " + owner.getId(), exception.getMessage());
     }
 
     @Test
     void getAllBookingsAllItemsByOwnerCurrentState() {
-        when(userRepository.findById(owner.getId())).thenReturn(Optional.of(owner));
+        when(idRegistry.containsUser(owner.getId())).thenReturn(true);
 
-        LocalDateTime now = LocalDateTime.now().withNano(0);
-        when(bookingRepository.findAllByItemOwnerIdAndStartIsBeforeAndEndIsAfterOrderByStartDesc(owner.getId(), now, now)).thenReturn(Collections.singletonList(booking));
+        when(bookingRepository.findPage(any(), eq(0), eq(10))).thenReturn(Collections.singletonList(booking));
 
-        Collection<BookingRequestDto> result = bookingService.getAllBookingsAllItemsByOwner(owner.getId(), "CURRENT");
+        Collection<BookingRequestDto> result = bookingService.getAllBookingsAllItemsByOwner(owner.getId(), "CURRENT", 0, 10, null);
 
-        assertEquals(0, result.size());
+        assertEquals(1, result.size());
+        verify(bookingRepository).findPage(any(), eq(0), eq(10));
     }
 
     @Test
     void getAllBookingsAllItemsByOwnerFutureState() {
-        when(userRepository.findById(owner.getId())).thenReturn(Optional.of(owner));
+        when(idRegistry.containsUser(owner.getId())).thenReturn(true);
 
-        LocalDateTime now = LocalDateTime.now().withNano(0);
-        when(bookingRepository.findAllByItemOwnerIdAndStartIsAfterOrderByStartDesc(owner.getId(), now)).thenReturn(Collections.singletonList(booking));
+        when(bookingRepository.findPage(any(), eq(0), eq(10))).thenReturn(Collections.singletonList(booking));
 
-        Collection<BookingRequestDto> result = bookingService.getAllBookingsAllItemsByOwner(owner.getId(), "FUTURE");
+        Collection<BookingRequestDto> result = bookingService.getAllBookingsAllItemsByOwner(owner.getId(), "FUTURE", 0, 10, null);
 
-        assertEquals(0, result.size());
+        assertEquals(1, result.size());
+        verify(bookingRepository).findPage(any(), eq(0), eq(10));
     }
 
     @Test
     void getAllBookingsAllItemsByOwnerPastState() {
-        when(userRepository.findById(owner.getId())).thenReturn(Optional.of(owner));
+        when(idRegistry.containsUser(owner.getId())).thenReturn(true);
 
-        LocalDateTime now = LocalDateTime.now().withNano(0);
-        when(bookingRepository.findAllByItemOwnerIdAndEndIsBeforeOrderByStartDesc(owner.getId(), now)).thenReturn(Collections.singletonList(booking));
+        when(bookingRepository.findPage(any(), eq(0), eq(10))).thenReturn(Collections.singletonList(booking));
 
-        Collection<BookingRequestDto> result = bookingService.getAllBookingsAllItemsByOwner(owner.getId(), "PAST");
+        Collection<BookingRequestDto> result = bookingService.getAllBookingsAllItemsByOwner(owner.getId(), "PAST", 0, 10, null);
 
-        assertEquals(0, result.size());
+        assertEquals(1, result.size());
+        verify(bookingRepository).findPage(any(), eq(0), eq(10));
     }
 }
\ No newline at end of file
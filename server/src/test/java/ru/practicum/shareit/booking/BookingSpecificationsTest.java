@@ -0,0 +1,128 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class BookingSpecificationsTest {
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User owner;
+    private User booker;
+    private Booking past;
+    private Booking current;
+    private Booking future;
+    private Booking rejected;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(user("Owner"));
+        booker = userRepository.save(user("Booker"));
+        Item item = itemRepository.save(Item.builder()
+                .name("Дрель")
+                .description("Ударная")
+                .available(true)
+                .owner(owner)
+                .build());
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        past = bookingRepository.save(booking(item, now.minusDays(3), now.minusDays(2), Status.APPROVED));
+        current = bookingRepository.save(booking(item, now.minusDays(1), now.plusDays(1), Status.APPROVED));
+        future = bookingRepository.save(booking(item, now.plusDays(2), now.plusDays(3), Status.WAITING));
+        rejected = bookingRepository.save(booking(item, now.plusDays(4), now.plusDays(5), Status.REJECTED));
+    }
+
+    @Test
+    void filtersBookerBookingsByState() {
+        assertEquals(ids(rejected, future, current, past), ids(bookingService.getAllBookingsByUser(booker.getId(), "ALL", 0, 10, null)));
+        assertEquals(ids(current), ids(bookingService.getAllBookingsByUser(booker.getId(), "CURRENT", 0, 10, null)));
+        assertEquals(ids(past), ids(bookingService.getAllBookingsByUser(booker.getId(), "PAST", 0, 10, null)));
+        assertEquals(ids(rejected, future), ids(bookingService.getAllBookingsByUser(booker.getId(), "FUTURE", 0, 10, null)));
+        assertEquals(ids(future), ids(bookingService.getAllBookingsByUser(booker.getId(), "WAITING", 0, 10, null)));
+        assertEquals(ids(rejected), ids(bookingService.getAllBookingsByUser(booker.getId(), "REJECTED", 0, 10, null)));
+    }
+
+    @Test
+    void filtersOwnerBookingsByStateAndCursor() {
+        assertEquals(ids(current), ids(bookingService.getAllBookingsAllItemsByOwner(owner.getId(), "CURRENT", 0, 10, null)));
+        assertEquals(ids(rejected, future), ids(bookingService.getAllBookingsAllItemsByOwner(owner.getId(), "ALL", 0, 2, null)));
+
+        String cursor = new BookingCursor(future.getStart(), future.getId()).encode();
+        assertEquals(ids(current, past), ids(bookingService.getAllBookingsAllItemsByOwner(owner.getId(), "ALL", 0, 10, cursor)));
+        assertEquals(List.of(), ids(bookingService.getAllBookingsAllItemsByOwner(booker.getId(), "ALL", 0, 10, null)));
+    }
+
+    @Test
+    void loadsPageWithItemAndBookerInOneStatement() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        bookingService.getAllBookingsAllItemsByOwner(owner.getId(), "ALL", 0, 10, null);
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void loadsSingleBookingWithItemOwnerAndBookerInOneStatement() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        BookingRequestDto booking = bookingService.getById(current.getId(), owner.getId());
+
+        assertEquals(current.getId(), booking.getId());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    private static List<Long> ids(Booking... bookings) {
+        return List.of(bookings).stream().map(Booking::getId).toList();
+    }
+
+    private static List<Long> ids(List<BookingRequestDto> bookings) {
+        return bookings.stream().map(BookingRequestDto::getId).toList();
+    }
+
+    private static User user(String name) {
+        return User.builder().name(name).email(UUID.randomUUID() + "@test.com").build();
+    }
+
+    private Booking booking(Item item, LocalDateTime start, LocalDateTime end, Status status) {
+        return Booking.builder()
+                .item(item)
+                .booker(booker)
+                .start(start)
+                .end(end)
+                .status(status)
+                .build();
+    }
+}
@@ -0,0 +1,89 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class InMemoryItemSearchIndexTest {
+
+    private ItemRepository itemRepository;
+    private InMemoryItemSearchIndex index;
+    private User owner;
+    private User otherOwner;
+
+    @BeforeEach
+    void setUp() {
+        itemRepository = mock(ItemRepository.class);
+        index = new InMemoryItemSearchIndex(itemRepository);
+        owner = User.builder().id(1L).name("Owner").email("owner@test.com").build();
+        otherOwner = User.builder().id(2L).name("Other").email("other@test.com").build();
+        when(itemRepository.findAll()).thenReturn(List.of(
+                item(1L, owner, "Ручная дрель", "Сверлит", true),
+                item(2L, owner, "Инструмент", "Аккумуляторная ДРЕЛЬ", true),
+                item(3L, otherOwner, "Дрель ударная", "Мощная", true),
+                item(4L, otherOwner, "Дрель сломанная", "Не работает", false)));
+        index.rebuild();
+    }
+
+    @Test
+    void searchRanksByNameMatchAndSkipsUnavailable() {
+        assertEquals(List.of(3L, 1L, 2L), ids(index.search("дрель", 0, 10)));
+    }
+
+    @Test
+    void searchPagesResults() {
+        assertEquals(List.of(2L), ids(index.search("ДРЕЛЬ", 2, 2)));
+    }
+
+    @Test
+    void searchShortQueryScansAllDocuments() {
+        assertEquals(List.of(3L, 1L, 2L), ids(index.search("др", 0, 10)));
+    }
+
+    @Test
+    void indexReplacesChangedItem() {
+        index.index(item(1L, owner, "Пила", "Режет", true));
+        index.index(item(3L, otherOwner, "Дрель ударная", "Мощная", false));
+
+        assertEquals(List.of(2L), ids(index.search("дрель", 0, 10)));
+        assertEquals(List.of(1L), ids(index.search("пила", 0, 10)));
+    }
+
+    @Test
+    void removeAllByOwnerDropsOwnerItems() {
+        index.removeAllByOwner(owner.getId());
+
+        assertEquals(List.of(3L), ids(index.search("дрель", 0, 10)));
+        assertTrue(index.search("инструмент", 0, 10).isEmpty());
+    }
+
+    @Test
+    void removeAllDropsGivenItems() {
+        index.removeAll(List.of(1L, 3L));
+
+        assertEquals(List.of(2L), ids(index.search("дрель", 0, 10)));
+    }
+
+    private static List<Long> ids(List<ItemDto> items) {
+        return items.stream().map(ItemDto::getId).toList();
+    }
+
+    private static Item item(Long id, User owner, String name, String description, boolean available) {
+        return Item.builder()
+                .id(id)
+                .name(name)
+                .description(description)
+                .available(available)
+                .owner(owner)
+                .build();
+    }
+}
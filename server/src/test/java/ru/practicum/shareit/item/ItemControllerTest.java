@@ -20,6 +20,7 @@ import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Collections;
+import java.util.List;
 
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.*;
@@ -101,6 +102,19 @@ class ItemControllerTest {
         verify(itemService, times(1)).getById(anyLong(), anyLong());
     }
 
+    @Test
+    void getByIdReturnsNotModifiedForCurrentEtag() throws Exception {
+        when(itemService.getETag(anyLong(), anyLong())).thenReturn("\"1-0\"");
+
+        mvc.perform(get("/items/1")
+                        .header("X-Sharer-User-Id", 1L)
+                        .header("If-None-Match", "\"1-0\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"1-0\""))
+                .andExpect(content().string(""));
+        verify(itemService, never()).getById(anyLong(), anyLong());
+    }
+
     @Test
     void create() throws Exception {
         when(itemService.create(anyLong(), any())).thenReturn(itemDto);
@@ -119,10 +133,25 @@ class ItemControllerTest {
         verify(itemService, times(1)).create(anyLong(), any());
     }
 
+    @Test
+    void createAll() throws Exception {
+        when(itemService.createAll(anyLong(), any())).thenReturn(List.of(itemDto));
+
+        mvc.perform(post("/items/batch")
+                        .header("X-Sharer-User-Id", 1L)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(List.of(itemDto))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id", is(itemDto.getId()), Long.class))
+                .andExpect(jsonPath("$[0].name", is(itemDto.getName())));
+        verify(itemService, times(1)).createAll(anyLong(), any());
+    }
+
     @Test
     void update() throws Exception {
-        Item item = ItemMapper.toItem(itemDto, owner);
-        when(itemService.update(anyLong(), anyLong(), any())).thenReturn(item);
+        when(itemService.update(anyLong(), anyLong(), any())).thenReturn(itemDto);
 
         mvc.perform(patch("/items/1")
                         .header("X-Sharer-User-Id", 1L)
@@ -158,7 +187,7 @@ class ItemControllerTest {
 
     @Test
     void searchItem() throws Exception {
-        when(itemService.searchItem(anyString())).thenReturn(Collections.emptyList());
+        when(itemService.searchItem(anyString(), anyInt(), anyInt())).thenReturn(Collections.emptyList());
 
         mvc.perform(get("/items/search?text=test")
                         .header("X-Sharer-User-Id", 1L)
@@ -167,7 +196,7 @@ class ItemControllerTest {
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(content().json("[]"));
-        verify(itemService, times(1)).searchItem(anyString());
+        verify(itemService, times(1)).searchItem(anyString(), anyInt(), anyInt());
     }
 
     @Test
@@ -0,0 +1,70 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class ItemSearchTest {
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private String marker;
+
+    @BeforeEach
+    void setUp() {
+        marker = UUID.randomUUID().toString().substring(0, 8);
+        User owner = userRepository.save(User.builder().name("Owner").email(marker + "@search.com").build());
+        itemRepository.save(item(owner, "Ручная " + marker, "Описание", true));
+        itemRepository.save(item(owner, "Инструмент", "Отличная " + marker.toUpperCase() + " вещь", true));
+        itemRepository.save(item(owner, marker + " дрель", "Описание", true));
+        itemRepository.save(item(owner, marker + " сломанная", "Описание", false));
+    }
+
+    @Test
+    void searchFindsAvailableItemsRankedByNameMatch() {
+        List<String> names = itemService.searchItem(marker, 0, 10).stream().map(ItemDto::getName).toList();
+
+        assertEquals(List.of(marker + " дрель", "Ручная " + marker, "Инструмент"), names);
+    }
+
+    @Test
+    void searchPagesResults() {
+        List<String> names = itemService.searchItem(marker, 2, 2).stream().map(ItemDto::getName).toList();
+
+        assertEquals(List.of("Инструмент"), names);
+    }
+
+    @Test
+    void searchTreatsWildcardsLiterally() {
+        assertEquals(0, itemService.searchItem("%", 0, 10).stream()
+                .filter(item -> item.getName().contains(marker))
+                .count());
+    }
+
+    private static Item item(User owner, String name, String description, boolean available) {
+        return Item.builder()
+                .name(name)
+                .description(description)
+                .available(available)
+                .owner(owner)
+                .build();
+    }
+}
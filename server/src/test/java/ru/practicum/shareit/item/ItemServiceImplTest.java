@@ -5,7 +5,11 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.IdRegistry;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
@@ -20,13 +24,18 @@ import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.model.User;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
@@ -48,6 +57,15 @@ class ItemServiceImplTest {
     @Mock
     private ItemRequestRepository itemRequestRepository;
 
+    @Mock
+    private ItemSearchIndex itemSearchIndex;
+
+    @Mock
+    private IdRegistry idRegistry;
+
+    @Spy
+    private ItemDetailsCache itemDetailsCache = new ItemDetailsCache(100, Duration.ofMinutes(1));
+
     @InjectMocks
     private ItemServiceImpl itemService;
 
@@ -105,11 +123,14 @@ class ItemServiceImplTest {
                 .authorName(owner.getName())
                 .created(LocalDateTime.now())
                 .build();
+
+        lenient().when(idRegistry.containsUser(anyLong())).thenReturn(true);
+        lenient().when(idRegistry.containsItem(anyLong())).thenReturn(true);
     }
 
     @Test
     void create() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(userRepository.getReferenceById(anyLong())).thenReturn(user);
         when(itemRequestRepository.findById(anyLong())).thenReturn(Optional.of(itemRequest));
         when(itemRepository.save(any(Item.class))).thenReturn(item);
 
@@ -117,54 +138,112 @@ class ItemServiceImplTest {
 
         assertNotNull(result);
         assertEquals(itemDto.getName(), result.getName());
-        verify(userRepository, times(1)).findById(user.getId());
+        verify(idRegistry, times(1)).containsUser(user.getId());
         verify(itemRepository, times(1)).save(any(Item.class));
+        verify(itemSearchIndex, times(1)).index(item);
     }
 
     @Test
     void createWithInvalidUser() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(idRegistry.containsUser(anyLong())).thenReturn(false);
 
         NotFoundException exception = assertThrows(NotFoundException.class, () -> {
             itemService.create(999L, itemDto);
         });
 
         assertEquals("Пользователь с таким Id 999 не найден", exception.getMessage());
-        verify(userRepository, times(1)).findById(999L);
+        verify(idRegistry, times(1)).containsUser(999L);
         verify(itemRepository, never()).save(any(Item.class));
     }
 
+    @Test
+    void createAllSavesItemsInOneCall() {
+        Item second = Item.builder().id(2L).name("Second").description("Second").available(true).owner(owner).build();
+        when(userRepository.getReferenceById(anyLong())).thenReturn(owner);
+        when(itemRequestRepository.findAllById(Set.of(itemRequest.getId()))).thenReturn(List.of(itemRequest));
+        when(itemRepository.saveAll(anyList())).thenReturn(List.of(item, second));
+
+        List<ItemDto> result = itemService.createAll(owner.getId(),
+                List.of(itemDto, ItemMapper.toItemDto(second, null, null)));
+
+        assertEquals(List.of(1L, 2L), result.stream().map(ItemDto::getId).toList());
+        assertEquals(itemRequest.getId(), result.getFirst().getRequestId());
+        verify(itemRepository, times(1)).saveAll(anyList());
+        verify(itemRepository, never()).save(any(Item.class));
+        verify(itemSearchIndex, times(2)).index(any(Item.class));
+    }
+
+    @Test
+    void createAllWithUnknownRequestSavesNothing() {
+        when(itemRequestRepository.findAllById(Set.of(itemRequest.getId()))).thenReturn(List.of());
+
+        NotFoundException exception = assertThrows(NotFoundException.class,
+                () -> itemService.createAll(owner.getId(), List.of(itemDto)));
+
+        assertEquals("Запрос с id = 1 не найден!", exception.getMessage());
+        verify(itemRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void createAllRejectsOversizedBatch() {
+        List<ItemDto> itemDtos = Collections.nCopies(1001, itemDto);
+
+        ValidationException exception = assertThrows(ValidationException.class,
+                () -> itemService.createAll(owner.getId(), itemDtos));
+
+        assertEquals("Размер пакета должен быть от 1 до 1000", exception.getMessage());
+        verify(itemRepository, never()).saveAll(anyList());
+    }
+
     @Test
     void update() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(owner));
+        when(idRegistry.containsUser(anyLong())).thenReturn(true);
         when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
         when(itemRepository.save(any(Item.class))).thenReturn(item);
 
-        Item result = itemService.update(owner.getId(), item.getId(), item);
+        ItemDto result = itemService.update(owner.getId(), item.getId(), item);
 
         assertNotNull(result);
         assertEquals(item.getName(), result.getName());
-        verify(userRepository, times(1)).findById(owner.getId());
+        verify(idRegistry, times(1)).containsUser(owner.getId());
         verify(itemRepository, times(1)).findById(item.getId());
         verify(itemRepository, times(1)).save(item);
     }
 
+    @Test
+    void updateIndexesItemOnlyAfterCommit() {
+        when(idRegistry.containsUser(anyLong())).thenReturn(true);
+        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
+        when(itemRepository.save(any(Item.class))).thenReturn(item);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            itemService.update(owner.getId(), item.getId(), item);
+            verify(itemSearchIndex, never()).index(any());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(itemSearchIndex).index(item);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
     @Test
     void updateWithInvalidUser() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(idRegistry.containsUser(anyLong())).thenReturn(false);
 
         NotFoundException exception = assertThrows(NotFoundException.class, () -> {
             itemService.update(999L, item.getId(), item);
         });
 
         assertEquals("Пользователь с таким Id 999 не найден", exception.getMessage());
-        verify(userRepository, times(1)).findById(999L);
+        verify(idRegistry, times(1)).containsUser(999L);
         verify(itemRepository, never()).save(any(Item.class));
     }
 
     @Test
     void updateWithInvalidItem() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(idRegistry.containsUser(anyLong())).thenReturn(true);
         when(itemRepository.findById(anyLong())).thenReturn(Optional.empty());
 
         NotFoundException exception = assertThrows(NotFoundException.class, () -> {
@@ -178,7 +257,7 @@ class ItemServiceImplTest {
 
     @Test
     void updateWithInvalidOwner() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(idRegistry.containsUser(anyLong())).thenReturn(true);
         when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
 
         NotFoundException exception = assertThrows(NotFoundException.class, () -> {
@@ -192,7 +271,7 @@ class ItemServiceImplTest {
 
     @Test
     void getById() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(idRegistry.containsUser(anyLong())).thenReturn(true);
         when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
 
         ItemDto result = itemService.getById(user.getId(), item.getId());
@@ -202,43 +281,115 @@ class ItemServiceImplTest {
         verify(itemRepository, times(1)).findById(item.getId());
     }
 
+    @Test
+    void getByIdForOwnerUsesCachedItemAndBookings() {
+        LocalDateTime now = LocalDateTime.now();
+        Booking past = Booking.builder().id(1L).booker(user).start(now.minusDays(2)).end(now.minusDays(1)).build();
+        Booking current = Booking.builder().id(2L).booker(user).start(now.minusHours(1)).end(now.plusHours(1)).build();
+        Booking future = Booking.builder().id(3L).booker(user).start(now.plusDays(1)).end(now.plusDays(2)).build();
+        Booking later = Booking.builder().id(4L).booker(user).start(now.plusDays(3)).end(now.plusDays(4)).build();
+        when(idRegistry.containsUser(anyLong())).thenReturn(true);
+        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(bookingRepository.findAllByItemIdAndStatusOrderByStartAsc(item.getId(), Status.APPROVED))
+                .thenReturn(List.of(past, current, future, later));
+
+        itemService.getById(owner.getId(), item.getId());
+        ItemDto result = itemService.getById(owner.getId(), item.getId());
+
+        assertEquals(current.getId(), result.getLastBooking().getId());
+        assertEquals(future.getId(), result.getNextBooking().getId());
+        verify(itemRepository, times(1)).findById(item.getId());
+        verify(bookingRepository, times(1)).findAllByItemIdAndStatusOrderByStartAsc(item.getId(), Status.APPROVED);
+    }
+
+    @Test
+    void getByIdForOtherUserHasNoBookings() {
+        when(idRegistry.containsUser(anyLong())).thenReturn(true);
+        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+
+        ItemDto result = itemService.getById(user.getId(), item.getId());
+
+        assertNull(result.getLastBooking());
+        assertNull(result.getNextBooking());
+        verify(bookingRepository, never()).findAllByItemIdAndStatusOrderByStartAsc(anyLong(), any());
+    }
+
+    @Test
+    void updateEvictsCachedItem() {
+        when(idRegistry.containsUser(anyLong())).thenReturn(true);
+        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(itemRepository.save(any(Item.class))).thenReturn(item);
+
+        itemService.getById(owner.getId(), item.getId());
+        itemService.update(owner.getId(), item.getId(), Item.builder().name("New name").build());
+        itemService.getById(owner.getId(), item.getId());
+
+        verify(itemDetailsCache).evictItem(item.getId());
+        verify(itemRepository, times(3)).findById(item.getId());
+    }
+
+    @Test
+    void etagChangesWithItemVersionAndNearestBookings() {
+        LocalDateTime now = LocalDateTime.now();
+        Booking future = Booking.builder().id(3L).booker(user).start(now.plusDays(1)).end(now.plusDays(2)).build();
+        item.setVersion(0L);
+        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(bookingRepository.findAllByItemIdAndStatusOrderByStartAsc(item.getId(), Status.APPROVED))
+                .thenReturn(List.of(future));
+
+        String forOther = itemService.getETag(user.getId(), item.getId());
+        String forOwner = itemService.getETag(owner.getId(), item.getId());
+        assertEquals(forOther, itemService.getETag(user.getId(), item.getId()));
+        assertNotEquals(forOther, forOwner);
+
+        item.setVersion(1L);
+        itemDetailsCache.evictItem(item.getId());
+        assertNotEquals(forOther, itemService.getETag(user.getId(), item.getId()));
+    }
+
     @Test
     void getByIdWithInvalidUser() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(idRegistry.containsUser(anyLong())).thenReturn(false);
 
         NotFoundException exception = assertThrows(NotFoundException.class, () -> {
             itemService.getById(999L, item.getId());
         });
 
         assertEquals("Пользователь с таким Id 999 не найден", exception.getMessage());
-        verify(userRepository, times(1)).findById(999L);
+        verify(idRegistry, times(1)).containsUser(999L);
     }
 
     @Test
     void searchItem() {
-        when(itemRepository.findByNameContainsIgnoringCaseOrDescriptionContainsIgnoringCase(anyString(), anyString()))
-                .thenReturn(Collections.singletonList(item));
+        when(itemSearchIndex.search("Test", 0, 10))
+                .thenReturn(Collections.singletonList(itemDto));
 
-        Collection<Item> result = itemService.searchItem("Test");
+        Collection<ItemDto> result = itemService.searchItem("Test", 0, 10);
 
         assertNotNull(result);
         assertFalse(result.isEmpty());
         assertEquals(1, result.size());
-        verify(itemRepository, times(1)).findByNameContainsIgnoringCaseOrDescriptionContainsIgnoringCase(anyString(), anyString());
+        verify(itemSearchIndex, times(1)).search("Test", 0, 10);
+    }
+
+    @Test
+    void searchItemWithInvalidPaging() {
+        assertThrows(ValidationException.class, () -> itemService.searchItem("Test", -1, 10));
+        verify(itemSearchIndex, never()).search(anyString(), anyInt(), anyInt());
     }
 
     @Test
     void searchItemWithEmptyText() {
-        Collection<Item> result = itemService.searchItem("");
+        Collection<ItemDto> result = itemService.searchItem("", 0, 10);
 
         assertNotNull(result);
         assertTrue(result.isEmpty());
-        verify(itemRepository, never()).findByNameContainsIgnoringCaseOrDescriptionContainsIgnoringCase(anyString(), anyString());
+        verify(itemSearchIndex, never()).search(anyString(), anyInt(), anyInt());
     }
 
     @Test
     void getAll() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(owner));
+        when(idRegistry.containsUser(anyLong())).thenReturn(true);
         when(itemRepository.findAllByOwnerId(anyLong())).thenReturn(Collections.singletonList(item));
 
         Collection<ItemDto> result = itemService.getAll(owner.getId());
@@ -263,18 +414,18 @@ class ItemServiceImplTest {
 
     @Test
     void createShouldThrowNotFoundException_WhenUserNotFound() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(idRegistry.containsUser(anyLong())).thenReturn(false);
 
         assertThrows(NotFoundException.class, () -> itemService.create(user.getId(), itemDto));
     }
 
     @Test
     void updateShouldReturnUpdatedItem() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(owner));
+        when(idRegistry.containsUser(anyLong())).thenReturn(true);
         when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
         when(itemRepository.save(any(Item.class))).thenReturn(item);
 
-        Item result = itemService.update(owner.getId(), item.getId(), item);
+        ItemDto result = itemService.update(owner.getId(), item.getId(), item);
 
         assertNotNull(result);
         assertEquals(item.getId(), result.getId());
@@ -283,14 +434,14 @@ class ItemServiceImplTest {
 
     @Test
     void updateShouldThrowNotFoundException_WhenUserNotFound() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(idRegistry.containsUser(anyLong())).thenReturn(false);
 
         assertThrows(NotFoundException.class, () -> itemService.update(user.getId(), item.getId(), item));
     }
 
     @Test
     void updateShouldThrowNotFoundException_WhenItemNotFound() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(idRegistry.containsUser(anyLong())).thenReturn(true);
         when(itemRepository.findById(anyLong())).thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class, () -> itemService.update(user.getId(), item.getId(), item));
@@ -298,7 +449,7 @@ class ItemServiceImplTest {
 
     @Test
     void getByIdShouldReturnItem() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(idRegistry.containsUser(anyLong())).thenReturn(true);
         when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
 
         ItemDto result = itemService.getById(user.getId(), item.getId());
@@ -309,14 +460,14 @@ class ItemServiceImplTest {
 
     @Test
     void getByIdShouldThrowNotFoundExceptionWhenUserNotFound() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(idRegistry.containsUser(anyLong())).thenReturn(false);
 
         assertThrows(NotFoundException.class, () -> itemService.getById(user.getId(), item.getId()));
     }
 
     @Test
     void getByIdShouldThrowNotFoundExceptionWhenItemNotFound() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(idRegistry.containsUser(anyLong())).thenReturn(true);
         when(itemRepository.findById(anyLong())).thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class, () -> itemService.getById(user.getId(), item.getId()));
@@ -324,10 +475,10 @@ class ItemServiceImplTest {
 
     @Test
     void searchItemShouldReturnItems() {
-        when(itemRepository.findByNameContainsIgnoringCaseOrDescriptionContainsIgnoringCase(anyString(), anyString()))
-                .thenReturn(Collections.singletonList(item));
+        when(itemSearchIndex.search(anyString(), anyInt(), anyInt()))
+                .thenReturn(Collections.singletonList(itemDto));
 
-        Collection<Item> result = itemService.searchItem("Item");
+        Collection<ItemDto> result = itemService.searchItem("Item", 0, 10);
 
         assertNotNull(result);
         assertFalse(result.isEmpty());
@@ -336,7 +487,7 @@ class ItemServiceImplTest {
 
     @Test
     void searchItemShouldReturnEmptyCollectionWhenTextIsEmpty() {
-        Collection<Item> result = itemService.searchItem("");
+        Collection<ItemDto> result = itemService.searchItem("", 0, 10);
 
         assertNotNull(result);
         assertTrue(result.isEmpty());
@@ -344,7 +495,7 @@ class ItemServiceImplTest {
 
     @Test
     void getAllShouldReturnItems() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(idRegistry.containsUser(anyLong())).thenReturn(true);
         when(itemRepository.findAllByOwnerId(anyLong())).thenReturn(Collections.singletonList(item));
 
         Collection<ItemDto> result = itemService.getAll(user.getId());
@@ -356,7 +507,7 @@ class ItemServiceImplTest {
 
     @Test
     void getAllShouldThrowNotFoundExceptionWhenUserNotFound() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(idRegistry.containsUser(anyLong())).thenReturn(false);
 
         assertThrows(NotFoundException.class, () -> itemService.getAll(user.getId()));
     }
@@ -0,0 +1,144 @@
+package ru.practicum.shareit.item;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ItemServiceQueryCountTest {
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void getAllUsesConstantNumberOfQueries() {
+        User smallOwner = createOwnerWithItems(2);
+        User largeOwner = createOwnerWithItems(25);
+
+        statistics.clear();
+        itemService.getAll(smallOwner.getId());
+        long smallOwnerQueries = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        Collection<ItemDto> items = itemService.getAll(largeOwner.getId());
+        long largeOwnerQueries = statistics.getPrepareStatementCount();
+
+        assertEquals(25, items.size());
+        assertEquals(smallOwnerQueries, largeOwnerQueries);
+        assertTrue(largeOwnerQueries <= 4, "queries: " + largeOwnerQueries);
+    }
+
+    @Test
+    void getAllReturnsNearestApprovedBookingsAndComments() {
+        User owner = createOwnerWithItems(1);
+        ItemDto item = itemService.getAll(owner.getId()).iterator().next();
+
+        assertNotNull(item.getLastBooking());
+        assertNotNull(item.getNextBooking());
+        assertTrue(item.getLastBooking().getStart().isBefore(LocalDateTime.now()));
+        assertTrue(item.getNextBooking().getStart().isAfter(LocalDateTime.now()));
+        assertTrue(item.getNextBooking().getStart().isBefore(LocalDateTime.now().plusDays(3)));
+        assertEquals(2, item.getComments().size());
+    }
+
+    @Test
+    void createAllInsertsItemsInJdbcBatches() {
+        User owner = userRepository.save(user("Importer"));
+        List<ItemDto> itemDtos = IntStream.range(0, 120)
+                .mapToObj(i -> ItemDto.builder().name("Import " + i).description("Description " + i).available(true).build())
+                .toList();
+
+        statistics.clear();
+        List<ItemDto> created = itemService.createAll(owner.getId(), itemDtos);
+        long statements = statistics.getPrepareStatementCount();
+
+        assertEquals(120, created.stream().map(ItemDto::getId).distinct().count());
+        assertEquals(120, itemRepository.findAllByOwnerId(owner.getId()).size());
+        assertTrue(statements <= 10, "statements: " + statements);
+    }
+
+    private User createOwnerWithItems(int count) {
+        User owner = userRepository.save(user("Owner"));
+        User booker = userRepository.save(user("Booker"));
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < count; i++) {
+            Item item = itemRepository.save(Item.builder()
+                    .name("Item " + i)
+                    .description("Description " + i)
+                    .available(true)
+                    .owner(owner)
+                    .build());
+            bookingRepository.save(booking(item, booker, now.minusDays(5), Status.APPROVED));
+            bookingRepository.save(booking(item, booker, now.minusDays(2), Status.APPROVED));
+            bookingRepository.save(booking(item, booker, now.minusDays(1), Status.REJECTED));
+            bookingRepository.save(booking(item, booker, now.plusDays(2), Status.APPROVED));
+            bookingRepository.save(booking(item, booker, now.plusDays(1), Status.WAITING));
+            bookingRepository.save(booking(item, booker, now.plusDays(6), Status.APPROVED));
+            for (int j = 0; j < 2; j++) {
+                commentRepository.save(Comment.builder()
+                        .text("Comment " + j)
+                        .item(item)
+                        .author(booker)
+                        .created(now)
+                        .build());
+            }
+        }
+        return owner;
+    }
+
+    private static User user(String name) {
+        return User.builder().name(name).email(UUID.randomUUID() + "@test.com").build();
+    }
+
+    private static Booking booking(Item item, User booker, LocalDateTime start, Status status) {
+        return Booking.builder()
+                .item(item)
+                .booker(booker)
+                .start(start)
+                .end(start.plusHours(12))
+                .status(status)
+                .build();
+    }
+}
@@ -23,6 +23,7 @@ import java.util.List;
 
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -110,9 +111,21 @@ class ItemRequestControllerTest {
         verify(itemRequestService, times(1)).getItemRequestById(anyLong());
     }
 
+    @Test
+    void getItemRequestByIdReturnsNotModifiedForCurrentEtag() throws Exception {
+        when(itemRequestService.getETag(anyLong())).thenReturn("\"1-0-0\"");
+
+        mvc.perform(get("/requests/1")
+                        .header("X-Sharer-User-Id", 1L)
+                        .header("If-None-Match", "\"1-0-0\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        verify(itemRequestService, never()).getItemRequestById(anyLong());
+    }
+
     @Test
     void getAllItemRequestByOtherUsers() throws Exception {
-        when(itemRequestService.getAllItemRequestToOtherUser(pageable)).thenReturn(Collections.emptyList());
+        when(itemRequestService.getAllItemRequestToOtherUser(1L, pageable)).thenReturn(Collections.emptyList());
 
         mvc.perform(get("/requests/all?from=0&size=10")
                         .header("X-Sharer-User-Id", 1L)
@@ -121,6 +134,6 @@ class ItemRequestControllerTest {
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(content().json("[]"));
-        verify(itemRequestService, times(1)).getAllItemRequestToOtherUser(pageable);
+        verify(itemRequestService, times(1)).getAllItemRequestToOtherUser(1L, pageable);
     }
 }
\ No newline at end of file
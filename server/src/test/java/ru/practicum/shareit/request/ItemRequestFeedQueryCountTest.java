@@ -0,0 +1,120 @@
+package ru.practicum.shareit.request;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.dto.ItemRequestFeedDto;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ItemRequestFeedQueryCountTest {
+
+    @Autowired
+    private ItemRequestService itemRequestService;
+
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void feedIsLoadedWithTwoQueries() {
+        User requester = userRepository.save(user("Requester"));
+        User owner = userRepository.save(user("Owner"));
+        for (int i = 0; i < 10; i++) {
+            ItemRequest itemRequest = itemRequestRepository.save(request(requester, "Request " + i));
+            Item item = itemRepository.save(Item.builder()
+                    .name("Answer " + i)
+                    .description("Description " + i)
+                    .available(true)
+                    .owner(owner)
+                    .request(itemRequest)
+                    .build());
+            bookingRepository.save(Booking.builder()
+                    .item(item)
+                    .booker(requester)
+                    .start(LocalDateTime.now().plusDays(1))
+                    .end(LocalDateTime.now().plusDays(2))
+                    .status(Status.WAITING)
+                    .build());
+        }
+
+        statistics.clear();
+        Collection<ItemRequestFeedDto> feed = itemRequestService.getAllItemRequestByOwner(requester.getId());
+
+        assertEquals(10, feed.size());
+        assertEquals(2, statistics.getPrepareStatementCount());
+        feed.forEach(itemRequest -> {
+            assertEquals(requester.getName(), itemRequest.getRequester().getName());
+            assertEquals(1, itemRequest.getItems().size());
+            assertEquals(owner.getId(), itemRequest.getItems().iterator().next().getOwnerId());
+        });
+    }
+
+    @Test
+    void feedOfOtherUsersExcludesOwnRequests() {
+        User requester = userRepository.save(user("Requester"));
+        User other = userRepository.save(user("Other"));
+        ItemRequest own = itemRequestRepository.save(request(requester, "Own"));
+        ItemRequest foreign = itemRequestRepository.save(request(other, "Foreign"));
+
+        Collection<ItemRequestFeedDto> feed = itemRequestService.getAllItemRequestToOtherUser(requester.getId(),
+                PageRequest.of(0, 1000, Sort.by("created").descending()));
+
+        assertTrue(feed.stream().anyMatch(itemRequest -> itemRequest.getId().equals(foreign.getId())));
+        assertTrue(feed.stream().noneMatch(itemRequest -> itemRequest.getId().equals(own.getId())));
+        assertTrue(feed.stream().noneMatch(itemRequest -> itemRequest.getRequester().getId().equals(requester.getId())));
+        List<LocalDateTime> created = feed.stream().map(ItemRequestFeedDto::getCreated).toList();
+        assertEquals(created.stream().sorted(Comparator.reverseOrder()).toList(), created);
+    }
+
+    private static User user(String name) {
+        return User.builder().name(name).email(UUID.randomUUID() + "@test.com").build();
+    }
+
+    private static ItemRequest request(User requester, String description) {
+        return ItemRequest.builder()
+                .description(description)
+                .requester(requester)
+                .created(LocalDateTime.now())
+                .build();
+    }
+}
@@ -7,13 +7,19 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.*;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import ru.practicum.shareit.IdRegistry;
+import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestFeedDto;
+import ru.practicum.shareit.request.dto.ItemRequestFeedView;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -26,6 +32,9 @@ class ItemRequestServiceImplTest {
     private ItemRequestService itemRequestService;
     private ItemRequestRepository itemRequestRepository;
     private UserRepository userRepository;
+    private ItemRepository itemRepository;
+    private IdRegistry idRegistry;
+    private ItemRequestFeedBus itemRequestFeedBus;
     private User user;
     private ItemRequest itemRequest;
     private ItemRequestDto itemRequestDto;
@@ -35,9 +44,15 @@ class ItemRequestServiceImplTest {
     void setUp() {
         userRepository = mock(UserRepository.class);
         itemRequestRepository = mock(ItemRequestRepository.class);
+        idRegistry = mock(IdRegistry.class);
+        itemRepository = mock(ItemRepository.class);
+        itemRequestFeedBus = mock(ItemRequestFeedBus.class);
         itemRequestService = new ItemRequestServiceImpl(
                 itemRequestRepository,
-                userRepository);
+                userRepository,
+                itemRepository,
+                idRegistry,
+                itemRequestFeedBus);
 
         user = User.builder()
                 .id(1L)
@@ -55,6 +70,7 @@ class ItemRequestServiceImplTest {
 
 
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(idRegistry.containsUser(anyLong())).thenReturn(true);
         when(itemRequestRepository.save(any())).thenReturn(itemRequest);
         when(itemRequestRepository.findById(any())).thenReturn(Optional.of(itemRequest));
         pageable = PageRequest.of(0, 10, Sort.by("created").descending());
@@ -64,6 +80,14 @@ class ItemRequestServiceImplTest {
         when(itemRequestRepository.findAll((Pageable) any())).thenReturn(page);
         when(itemRequestRepository.findAllByRequesterIdOrderByCreatedDesc(anyLong())).thenReturn(List.of(itemRequest));
         when(itemRequestRepository.findAllByRequesterId(anyLong())).thenReturn(List.of(itemRequest));
+        ItemRequestFeedView feedView = new SpelAwareProxyProjectionFactory().createProjection(ItemRequestFeedView.class,
+                Map.of("id", itemRequest.getId(),
+                        "description", itemRequest.getDescription(),
+                        "created", itemRequest.getCreated(),
+                        "requesterId", user.getId(),
+                        "requesterName", user.getName()));
+        when(itemRequestRepository.findFeedByRequesterId(anyLong())).thenReturn(List.of(feedView));
+        when(itemRequestRepository.findFeedExcludingRequester(anyLong(), any())).thenReturn(List.of(feedView));
         when(itemRequestRepository.findByIdOrderByCreatedAsc(anyLong())).thenReturn(Optional.of(itemRequest));
 
         itemRequestDto = ItemRequestMapper.toItemRequestDto(itemRequest);
@@ -71,13 +95,15 @@ class ItemRequestServiceImplTest {
 
     @Test
     void getAllItemRequestByOwner() {
-        List<ItemRequestDto> result = itemRequestService.getAllItemRequestByOwner(user.getId()).stream().toList();
+        List<ItemRequestFeedDto> result = itemRequestService.getAllItemRequestByOwner(user.getId()).stream().toList();
         Assertions.assertNotNull(result);
         Assertions.assertEquals(result.getFirst().getCreated(), itemRequestDto.getCreated());
         Assertions.assertEquals(result.getFirst().getDescription(), itemRequestDto.getDescription());
-        Assertions.assertEquals(result.getFirst().getRequester(), itemRequestDto.getRequester());
+        Assertions.assertEquals(result.getFirst().getRequester().getId(), user.getId());
+        Assertions.assertEquals(result.getFirst().getRequester().getName(), user.getName());
         Assertions.assertEquals(result.getFirst().getId(), itemRequestDto.getId());
-        verify(itemRequestRepository, times(1)).findAllByRequesterId(anyLong());
+        verify(itemRequestRepository, times(1)).findFeedByRequesterId(anyLong());
+        verify(itemRepository, times(1)).findAnswersByRequestIdIn(List.of(itemRequest.getId()));
     }
 
     @Test
@@ -88,6 +114,7 @@ class ItemRequestServiceImplTest {
         Assertions.assertEquals(result.getRequester(), itemRequestDto.getRequester());
         Assertions.assertEquals(result.getId(), itemRequestDto.getId());
         verify(itemRequestRepository, times(1)).save(any());
+        verify(itemRequestFeedBus, times(1)).publish(any());
     }
 
     @Test
@@ -102,12 +129,13 @@ class ItemRequestServiceImplTest {
 
     @Test
     void getAllItemRequestToOtherUser() {
-        List<ItemRequestDto> result = itemRequestService.getAllItemRequestToOtherUser(pageable).stream().toList();
+        List<ItemRequestFeedDto> result = itemRequestService.getAllItemRequestToOtherUser(2L, pageable).stream().toList();
         Assertions.assertNotNull(result);
         Assertions.assertEquals(result.getFirst().getCreated(), itemRequestDto.getCreated());
         Assertions.assertEquals(result.getFirst().getDescription(), itemRequestDto.getDescription());
-        Assertions.assertEquals(result.getFirst().getRequester(), itemRequestDto.getRequester());
+        Assertions.assertEquals(result.getFirst().getRequester().getId(), user.getId());
+        Assertions.assertEquals(result.getFirst().getRequester().getName(), user.getName());
         Assertions.assertEquals(result.getFirst().getId(), itemRequestDto.getId());
-        verify(itemRequestRepository, times(1)).findAll(pageable);
+        verify(itemRequestRepository, times(1)).findFeedExcludingRequester(2L, pageable);
     }
 }
\ No newline at end of file
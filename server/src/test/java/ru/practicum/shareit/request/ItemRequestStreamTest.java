@@ -0,0 +1,82 @@
+package ru.practicum.shareit.request;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "shareit.requests.stream.heartbeat=200ms")
+class ItemRequestStreamTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ItemRequestService itemRequestService;
+
+    @Autowired
+    private ItemRequestFeedBus itemRequestFeedBus;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void streamPushesRequestsOfOtherUsers() {
+        User subscriber = userRepository.save(user("Subscriber"));
+        User requester = userRepository.save(user("Requester"));
+
+        assertTimeoutPreemptively(Duration.ofSeconds(20), () -> {
+            HttpResponse<Stream<String>> response = client.send(HttpRequest.newBuilder(
+                                    URI.create("http://localhost:" + port + "/requests/stream"))
+                            .header("X-Sharer-User-Id", String.valueOf(subscriber.getId()))
+                            .header("Accept", "text/event-stream")
+                            .build(),
+                    HttpResponse.BodyHandlers.ofLines());
+            assertEquals(200, response.statusCode());
+
+            itemRequestService.addItemRequest(subscriber.getId(), ItemRequestDto.builder().description("Свой запрос").build());
+            ItemRequestDto published = itemRequestService.addItemRequest(requester.getId(),
+                    ItemRequestDto.builder().description("Нужна дрель").build());
+
+            try (Stream<String> lines = response.body()) {
+                String data = lines.filter(line -> line.startsWith("data:")).findFirst().orElseThrow();
+                assertTrue(data.contains("\"id\":" + published.getId()), data);
+                assertTrue(data.contains("Нужна дрель"), data);
+            }
+            while (itemRequestFeedBus.subscriberCount() > 0) {
+                Thread.sleep(50);
+            }
+        });
+    }
+
+    @Test
+    void streamForUnknownUserIsRejected() throws Exception {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(
+                                URI.create("http://localhost:" + port + "/requests/stream"))
+                        .header("X-Sharer-User-Id", String.valueOf(Long.MAX_VALUE))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(404, response.statusCode());
+    }
+
+    private static User user(String name) {
+        return User.builder().name(name).email(UUID.randomUUID() + "@stream.com").build();
+    }
+}
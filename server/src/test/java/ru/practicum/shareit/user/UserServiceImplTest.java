@@ -6,8 +6,16 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.IdRegistry;
+import ru.practicum.shareit.booking.BookingAvailabilityIndex;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.exception.AlreadyExistsException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.ItemDetailsCache;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemSearchIndex;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 
@@ -24,13 +32,28 @@ class UserServiceImplTest {
 
     private UserService userService;
     private UserRepository userRepository;
+    private ItemSearchIndex itemSearchIndex;
+    private ItemDetailsCache itemDetailsCache;
+    private IdRegistry idRegistry;
+    private ItemRepository itemRepository;
+    private BookingAvailabilityIndex availabilityIndex;
+    private CommentRepository commentRepository;
+    private BookingRepository bookingRepository;
     private User user;
     private UserDto userDto;
 
     @BeforeEach
     void setUp() {
         userRepository = mock(UserRepository.class);
-        userService = new UserServiceImpl(userRepository);
+        itemSearchIndex = mock(ItemSearchIndex.class);
+        itemDetailsCache = mock(ItemDetailsCache.class);
+        idRegistry = mock(IdRegistry.class);
+        itemRepository = mock(ItemRepository.class);
+        availabilityIndex = mock(BookingAvailabilityIndex.class);
+        commentRepository = mock(CommentRepository.class);
+        bookingRepository = mock(BookingRepository.class);
+        userService = new UserServiceImpl(userRepository, itemSearchIndex, itemDetailsCache, idRegistry, itemRepository,
+                availabilityIndex, commentRepository, bookingRepository);
         user = User.builder()
                 .id(1L)
                 .name("Test")
@@ -41,6 +64,7 @@ class UserServiceImplTest {
         when(userRepository.save(any())).thenReturn(user);
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
         when(userRepository.findAll()).thenReturn(List.of(user));
+        when(idRegistry.containsUser(anyLong())).thenReturn(true);
     }
 
     @Test
@@ -65,6 +89,17 @@ class UserServiceImplTest {
         verify(userRepository, times(1)).save(any());
     }
 
+    @Test
+    void updateEvictsOnlyItemsShowingUser() {
+        when(itemRepository.findIdsByOwnerId(user.getId())).thenReturn(List.of(3L));
+        when(commentRepository.findItemIdsByAuthorId(user.getId())).thenReturn(List.of(5L));
+
+        userService.update(user.getId(), user);
+
+        verify(itemDetailsCache).evictItems(List.of(3L, 5L));
+        verifyNoMoreInteractions(itemDetailsCache);
+    }
+
     @Test
     void createUserAlreadyExists() {
         userService.create(userDto);
@@ -76,9 +111,9 @@ class UserServiceImplTest {
 
     @Test
     public void getUserNotExist() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(idRegistry.containsUser(anyLong())).thenReturn(false);
         Assertions.assertThrows(NotFoundException.class, () -> userService.getById(1L));
-        verify(userRepository, times(1)).findById(any());
+        verify(userRepository, never()).findById(any());
     }
 
     @Test
@@ -93,9 +128,9 @@ class UserServiceImplTest {
 
     @Test
     public void updateUserNotExist() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(idRegistry.containsUser(anyLong())).thenReturn(false);
         Assertions.assertThrows(NotFoundException.class, () -> userService.update(3L,user));
-        verify(userRepository, times(1)).findById(any());
+        verify(userRepository, never()).findById(any());
     }
 
     @Test
@@ -118,14 +153,23 @@ class UserServiceImplTest {
 
     @Test
     void delete() {
+        when(itemRepository.findIdsByRequestRequesterId(user.getId())).thenReturn(List.of(7L));
+        when(itemRepository.findIdsByOwnerId(user.getId())).thenReturn(List.of(3L));
+        when(commentRepository.findItemIdsByAuthorId(user.getId())).thenReturn(List.of(5L));
+        when(bookingRepository.findItemIdsByBookerIdAndStatus(user.getId(), Status.APPROVED)).thenReturn(List.of(9L));
         userService.delete(user.getId());
         verify(userRepository, times(1)).deleteById(anyLong());
+        verify(itemSearchIndex, times(1)).removeAllByOwner(user.getId());
+        verify(itemSearchIndex, times(1)).removeAll(List.of(7L));
+        verify(availabilityIndex, times(1)).releaseBookerAfterCommit(user.getId());
+        verify(itemDetailsCache, times(1)).evictItems(List.of(3L, 5L, 7L));
+        verify(itemDetailsCache, times(1)).evictBookings(List.of(9L));
     }
 
     @Test
     public void deleteUserNotExist() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(idRegistry.containsUser(anyLong())).thenReturn(false);
         Assertions.assertThrows(NotFoundException.class, () -> userService.delete(1L));
-        verify(userRepository, times(1)).findById(any());
+        verify(userRepository, never()).findById(any());
     }
 }
\ No newline at end of file